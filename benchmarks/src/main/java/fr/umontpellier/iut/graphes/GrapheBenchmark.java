@@ -0,0 +1,131 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import fr.umontpellier.iut.trains.Jeu;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Bancs d'essai des algorithmes de {@link Graphe} sur les plateaux du jeu et des plateaux synthétiques
+ * de taille croissante.
+ * <p>
+ * Certains algorithmes modifient les voisinages du graphe qu'ils parcourent : ils sont mesurés
+ * sur un graphe reconstruit avant chaque invocation (hors mesure).
+ * <p>
+ * {@code getDistance} et {@code getColorationPropreOptimale} ne sont mesurés par défaut que sur Osaka et
+ * Tokyo (paramètre {@code petitPlateau}) : sur les plateaux synthétiques, un seul appel dépasse déjà la
+ * minute. Ils peuvent y être mesurés explicitement, par exemple avec
+ * {@code -p petitPlateau=Synthetique-400}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GrapheBenchmark {
+
+    /**
+     * Plateau mesuré et son graphe, construits une fois par essai
+     */
+    public abstract static class DonneesPlateau {
+        Jeu jeu;
+        Graphe graphe;
+        Sommet depart;
+        Sommet arrivee;
+
+        void charger(String plateau) {
+            jeu = Plateaux.creerJeu(plateau);
+            graphe = jeu.getGraphe();
+            depart = Plateaux.premierSommet(graphe);
+            arrivee = Plateaux.dernierSommetAccessible(graphe, depart);
+        }
+    }
+
+    /**
+     * Tous les plateaux, pour les algorithmes rapides
+     */
+    @State(Scope.Benchmark)
+    public static class Plateau extends DonneesPlateau {
+        @Param({"Osaka", "Tokyo", "Synthetique-400", "Synthetique-1600", "Synthetique-6400"})
+        public String plateau;
+
+        @Setup(Level.Trial)
+        public void preparer() {
+            charger(plateau);
+        }
+    }
+
+    /**
+     * Plateaux du jeu uniquement par défaut, pour les algorithmes trop lents sur les plateaux synthétiques
+     */
+    @State(Scope.Benchmark)
+    public static class PetitPlateau extends DonneesPlateau {
+        @Param({"Osaka", "Tokyo"})
+        public String petitPlateau;
+
+        @Setup(Level.Trial)
+        public void preparer() {
+            charger(petitPlateau);
+        }
+    }
+
+    /**
+     * Graphe neuf pour chaque invocation, pour les algorithmes qui modifient le graphe.
+     */
+    @State(Scope.Thread)
+    public static class GrapheJetable {
+        Graphe graphe;
+        Sommet depart;
+        Sommet arrivee;
+
+        @Setup(Level.Invocation)
+        public void preparer(Plateau plateau) {
+            graphe = plateau.jeu.getGraphe();
+            depart = graphe.getSommet(plateau.depart.getIndice());
+            arrivee = graphe.getSommet(plateau.arrivee.getIndice());
+        }
+    }
+
+    @Benchmark
+    public Graphe constructionDepuisJeu(Plateau plateau) {
+        return new Graphe(plateau.jeu);
+    }
+
+    @Benchmark
+    public int getDistance(PetitPlateau plateau) {
+        return plateau.graphe.getDistance(plateau.depart, plateau.arrivee);
+    }
+
+    @Benchmark
+    public boolean possedeUnIsthme(Plateau plateau) {
+        return plateau.graphe.possedeUnIsthme();
+    }
+
+    @Benchmark
+    public Map<Integer, Set<Sommet>> getColorationPropreOptimale(PetitPlateau plateau) {
+        return plateau.graphe.getColorationPropreOptimale();
+    }
+
+    @Benchmark
+    public boolean possedeSousGrapheComplet(GrapheJetable g) {
+        return g.graphe.possedeSousGrapheComplet(4);
+    }
+
+    @Benchmark
+    public Set<Sommet> getEnsembleCritique(GrapheJetable g) {
+        return g.graphe.getEnsembleCritique(g.depart, g.arrivee);
+    }
+}
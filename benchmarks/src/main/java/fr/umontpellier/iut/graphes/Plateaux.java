@@ -0,0 +1,55 @@
+package fr.umontpellier.iut.graphes;
+
+import fr.umontpellier.iut.trains.Jeu;
+import fr.umontpellier.iut.trains.plateau.GenerateurPlateau;
+import fr.umontpellier.iut.trains.plateau.Plateau;
+
+/**
+ * Plateaux utilisés par les bancs d'essai : les plateaux du jeu ({@code Osaka}, {@code Tokyo})
+ * et des plateaux synthétiques ({@code Synthetique-N}, environ {@code N} tuiles, graine fixe).
+ */
+final class Plateaux {
+    static final long GRAINE = 2024;
+
+    private Plateaux() {
+    }
+
+    static Jeu creerJeu(String nom) {
+        String[] nomsJoueurs = {"Rouge", "Bleu"};
+        String[] cartesPreparation = {};
+        if (nom.startsWith("Synthetique-")) {
+            int nbTuiles = Integer.parseInt(nom.substring("Synthetique-".length()));
+            int cote = (int) Math.round(Math.sqrt(nbTuiles));
+            GenerateurPlateau generateur = new GenerateurPlateau.GenerateurPlateauBuilder().setGraine(GRAINE)
+                    .setNbLignes(cote).setLargeur(cote).createGenerateurPlateau();
+            return new Jeu(nomsJoueurs, cartesPreparation, generateur.getNomVille(), generateur.makeTuiles());
+        }
+        return new Jeu(nomsJoueurs, cartesPreparation, Plateau.valueOf(nom.toUpperCase()));
+    }
+
+    /**
+     * @return le sommet de plus petit indice du graphe
+     */
+    static Sommet premierSommet(Graphe graphe) {
+        Sommet premier = null;
+        for (Sommet s : graphe.getSommets()) {
+            if (premier == null || s.getIndice() < premier.getIndice()) {
+                premier = s;
+            }
+        }
+        return premier;
+    }
+
+    /**
+     * @return le sommet de plus grand indice de la classe de connexité de {@code s}
+     */
+    static Sommet dernierSommetAccessible(Graphe graphe, Sommet s) {
+        Sommet dernier = s;
+        for (Sommet t : graphe.getClasseConnexite(s)) {
+            if (t.getIndice() > dernier.getIndice()) {
+                dernier = t;
+            }
+        }
+        return dernier;
+    }
+}
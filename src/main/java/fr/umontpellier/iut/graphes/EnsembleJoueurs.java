@@ -0,0 +1,142 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Ensemble d'indices de joueurs (entre 0 et 63) représenté par un masque de bits :
+ * le bit {@code j} vaut 1 si le joueur d'indice {@code j} appartient à l'ensemble.
+ * <p>
+ * Les éléments {@code null} sont ignorés à l'ajout (aucun joueur).
+ */
+public class EnsembleJoueurs extends AbstractSet<Integer> {
+    private long masque;
+
+    public EnsembleJoueurs() {
+        this.masque = 0;
+    }
+
+    public EnsembleJoueurs(long masque) {
+        this.masque = masque;
+    }
+
+    public EnsembleJoueurs(Collection<Integer> joueurs) {
+        this.masque = 0;
+        if (joueurs != null) {
+            addAll(joueurs);
+        }
+    }
+
+    /**
+     * @return un ensemble de joueurs ayant les mêmes éléments que {@code joueurs}
+     * ({@code joueurs} lui-même s'il est déjà représenté par un masque)
+     */
+    public static EnsembleJoueurs de(Collection<Integer> joueurs) {
+        if (joueurs instanceof EnsembleJoueurs ensemble) {
+            return ensemble;
+        }
+        return new EnsembleJoueurs(joueurs);
+    }
+
+    public long getMasque() {
+        return masque;
+    }
+
+    /**
+     * Ajoute à this tous les joueurs de {@code autre}
+     */
+    public void union(EnsembleJoueurs autre) {
+        masque |= autre.masque;
+    }
+
+    private static long bit(Object o) {
+        if (!(o instanceof Integer joueur) || joueur < 0 || joueur >= Long.SIZE) {
+            return 0;
+        }
+        return 1L << joueur;
+    }
+
+    @Override
+    public boolean add(Integer joueur) {
+        if (joueur == null) {
+            return false;
+        }
+        if (joueur < 0 || joueur >= Long.SIZE) {
+            throw new IllegalArgumentException("Indice de joueur non représentable : " + joueur);
+        }
+        long ancien = masque;
+        masque |= 1L << joueur;
+        return masque != ancien;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Integer> joueurs) {
+        if (joueurs instanceof EnsembleJoueurs ensemble) {
+            long ancien = masque;
+            masque |= ensemble.masque;
+            return masque != ancien;
+        }
+        return super.addAll(joueurs);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        long ancien = masque;
+        masque &= ~bit(o);
+        return masque != ancien;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return (masque & bit(o)) != 0;
+    }
+
+    @Override
+    public int size() {
+        return Long.bitCount(masque);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return masque == 0;
+    }
+
+    @Override
+    public void clear() {
+        masque = 0;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Iterator<>() {
+            private long restants = masque;
+            private int dernier = -1;
+
+            @Override
+            public boolean hasNext() {
+                return restants != 0;
+            }
+
+            @Override
+            public Integer next() {
+                if (restants == 0) {
+                    throw new NoSuchElementException();
+                }
+                dernier = Long.numberOfTrailingZeros(restants);
+                restants &= restants - 1;
+                return dernier;
+            }
+
+            @Override
+            public void remove() {
+                if (dernier < 0) {
+                    throw new IllegalStateException();
+                }
+                masque &= ~(1L << dernier);
+                dernier = -1;
+            }
+        };
+    }
+}
@@ -211,15 +211,15 @@ public class Graphe {
         List<Sommet> sommetEnsemble = new ArrayList<>(ensemble); // conversion de Set en List pour pouvoir trier
         int surcout = 0; // calcul du surcout total
         int nbPoints = 0; // calcul du nbPointVictoire total
-        Set<Integer> joueurs = new HashSet<>();
+        long joueurs = 0; // union des joueurs sous forme de masque de bits
         for (Sommet s : ensemble){
             surcout += s.getSurcout();
             nbPoints += s.getNbPointsVictoire();
-            joueurs.addAll(s.getJoueurs()); //no repeat puisque HashSet<>
+            joueurs |= s.getMasqueJoueurs();
         }
 
         Sommet minimum = new Sommet.SommetBuilder().setIndice(sommetEnsemble.get(0).getIndice()).
-                setJoueurs(joueurs).setSurcout(surcout).setNbPointsVictoire(nbPoints).createSommet();
+                setJoueurs(new EnsembleJoueurs(joueurs)).setSurcout(surcout).setNbPointsVictoire(nbPoints).createSommet();
 
         g.rebrancherSommets(ensemble, minimum);
 
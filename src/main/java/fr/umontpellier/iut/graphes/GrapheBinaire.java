@@ -0,0 +1,290 @@
+package fr.umontpellier.iut.graphes;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Instantané binaire en lecture seule d'un {@link Graphe}.
+ * <p>
+ * Le fichier est organisé en colonnes (petit-boutiste) :
+ * <ul>
+ * <li>un en-tête de 24 octets : nombre magique, version, nombre de sommets {@code n},
+ * nombre d'entrées d'adjacence {@code m} (deux par arête) et 8 octets réservés ;</li>
+ * <li>{@code long[n]} : ensemble des joueurs de chaque sommet sous forme de masque de bits ;</li>
+ * <li>{@code int[n]} : indices des sommets (triés par ordre croissant) ;</li>
+ * <li>{@code int[n]} : surcoûts ;</li>
+ * <li>{@code int[n]} : nombres de points de victoire ;</li>
+ * <li>{@code int[n + 1]} : début de la liste des voisins de chaque sommet (format CSR) ;</li>
+ * <li>{@code int[m]} : voisins, désignés par leur rang dans la table des sommets.</li>
+ * </ul>
+ * Le chargement projette le fichier en mémoire : les requêtes lisent directement dans la projection,
+ * sans créer d'objet {@link Sommet}. Les sommets sont désignés par leur rang (entre {@code 0} et
+ * {@code n - 1}), {@link #getRang(int)} permet de retrouver le rang d'un indice.
+ * <p>
+ * Le fichier est projeté en une seule fois, sa taille est donc limitée à {@link #TAILLE_MAX} octets
+ * (environ 2 Go, soit plus de 50 millions de sommets de degré 6) : l'écriture et le chargement d'un
+ * instantané plus volumineux sont refusés.
+ */
+public class GrapheBinaire {
+    private static final int MAGIQUE = 0x47525048; // "GRPH"
+    private static final int VERSION = 1;
+    private static final int TAILLE_EN_TETE = 24;
+    private static final int TAILLE_TAMPON = 1 << 16;
+    /**
+     * Taille maximale d'un fichier de graphe binaire (en octets)
+     */
+    public static final long TAILLE_MAX = Integer.MAX_VALUE;
+
+    private final int nbSommets;
+    private final int nbEntreesAdjacence;
+    private final LongBuffer joueurs;
+    private final IntBuffer indices;
+    private final IntBuffer surcouts;
+    private final IntBuffer pointsVictoire;
+    private final IntBuffer debutsVoisins;
+    private final IntBuffer voisins;
+
+    private GrapheBinaire(ByteBuffer donnees) {
+        donnees.order(ByteOrder.LITTLE_ENDIAN);
+        if (donnees.getInt(0) != MAGIQUE) {
+            throw new IllegalArgumentException("Le fichier n'est pas un graphe binaire");
+        }
+        if (donnees.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Version de graphe binaire non supportée : " + donnees.getInt(4));
+        }
+        nbSommets = donnees.getInt(8);
+        nbEntreesAdjacence = donnees.getInt(12);
+        if (nbSommets < 0 || nbEntreesAdjacence < 0) {
+            throw new IllegalArgumentException("Graphe binaire corrompu");
+        }
+
+        long position = TAILLE_EN_TETE;
+        joueurs = tranche(donnees, position, 8L * nbSommets).asLongBuffer();
+        position += 8L * nbSommets;
+        indices = tranche(donnees, position, 4L * nbSommets).asIntBuffer();
+        position += 4L * nbSommets;
+        surcouts = tranche(donnees, position, 4L * nbSommets).asIntBuffer();
+        position += 4L * nbSommets;
+        pointsVictoire = tranche(donnees, position, 4L * nbSommets).asIntBuffer();
+        position += 4L * nbSommets;
+        debutsVoisins = tranche(donnees, position, 4L * (nbSommets + 1)).asIntBuffer();
+        position += 4L * (nbSommets + 1);
+        voisins = tranche(donnees, position, 4L * nbEntreesAdjacence).asIntBuffer();
+    }
+
+    private static ByteBuffer tranche(ByteBuffer donnees, long position, long taille) {
+        if (position + taille > donnees.capacity()) {
+            throw new IllegalArgumentException("Graphe binaire tronqué");
+        }
+        // la projection fait au plus TAILLE_MAX octets, les conversions sont donc exactes
+        return donnees.slice((int) position, (int) taille).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * @return la taille en octets du fichier d'un graphe à {@code nbSommets} sommets et {@code nbEntrees}
+     * entrées d'adjacence
+     */
+    private static long taille(long nbSommets, long nbEntrees) {
+        return TAILLE_EN_TETE + 8 * nbSommets + 4 * (3 * nbSommets + 1) + 4 * nbEntrees;
+    }
+
+    /**
+     * Projette en mémoire un graphe écrit par {@link #ecrire(Graphe, Path)}.
+     *
+     * @throws IllegalArgumentException si le fichier n'est pas un graphe binaire valide ou s'il dépasse
+     * {@link #TAILLE_MAX} octets
+     */
+    public static GrapheBinaire charger(Path chemin) throws IOException {
+        try (FileChannel canal = FileChannel.open(chemin, StandardOpenOption.READ)) {
+            if (canal.size() > TAILLE_MAX) {
+                throw new IllegalArgumentException("Graphe binaire trop volumineux (" + canal.size()
+                        + " octets, au plus " + TAILLE_MAX + ")");
+            }
+            MappedByteBuffer projection = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            return new GrapheBinaire(projection);
+        }
+    }
+
+    /**
+     * Écrit l'instantané binaire du graphe {@code graphe} dans le fichier {@code chemin}
+     * (le fichier est remplacé s'il existe).
+     *
+     * @throws IllegalArgumentException si l'instantané dépasserait {@link #TAILLE_MAX} octets
+     */
+    public static void ecrire(Graphe graphe, Path chemin) throws IOException {
+        List<Sommet> sommets = new ArrayList<>(graphe.getSommets());
+        sommets.sort(new PlusPetitSommet());
+        Map<Sommet, Integer> rangs = new HashMap<>();
+        for (int rang = 0; rang < sommets.size(); rang++) {
+            rangs.put(sommets.get(rang), rang);
+        }
+        long nbEntrees = 0;
+        for (Sommet s : sommets) {
+            nbEntrees += s.getVoisins().size();
+        }
+        if (taille(sommets.size(), nbEntrees) > TAILLE_MAX) {
+            throw new IllegalArgumentException("Graphe trop grand pour un instantané binaire ("
+                    + taille(sommets.size(), nbEntrees) + " octets, au plus " + TAILLE_MAX + ")");
+        }
+
+        try (FileChannel canal = FileChannel.open(chemin, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer tampon = ByteBuffer.allocateDirect(TAILLE_TAMPON).order(ByteOrder.LITTLE_ENDIAN);
+            tampon.putInt(MAGIQUE).putInt(VERSION).putInt(sommets.size()).putInt((int) nbEntrees).putLong(0);
+            for (Sommet s : sommets) {
+                tampon = vider(canal, tampon, 8);
+                tampon.putLong(s.getMasqueJoueurs());
+            }
+            for (Sommet s : sommets) {
+                tampon = vider(canal, tampon, 4);
+                tampon.putInt(s.getIndice());
+            }
+            for (Sommet s : sommets) {
+                tampon = vider(canal, tampon, 4);
+                tampon.putInt(s.getSurcout());
+            }
+            for (Sommet s : sommets) {
+                tampon = vider(canal, tampon, 4);
+                tampon.putInt(s.getNbPointsVictoire());
+            }
+            int debut = 0;
+            for (Sommet s : sommets) {
+                tampon = vider(canal, tampon, 4);
+                tampon.putInt(debut);
+                debut += s.getVoisins().size();
+            }
+            tampon = vider(canal, tampon, 4);
+            tampon.putInt(debut);
+            for (Sommet s : sommets) {
+                List<Sommet> voisinsTries = new ArrayList<>(s.getVoisins());
+                voisinsTries.sort(new PlusPetitSommet());
+                for (Sommet voisin : voisinsTries) {
+                    tampon = vider(canal, tampon, 4);
+                    tampon.putInt(rangs.get(voisin));
+                }
+            }
+            tampon.flip();
+            while (tampon.hasRemaining()) {
+                canal.write(tampon);
+            }
+        }
+    }
+
+    /**
+     * Écrit le contenu du tampon dans le canal s'il ne reste pas {@code place} octets libres.
+     */
+    private static ByteBuffer vider(FileChannel canal, ByteBuffer tampon, int place) throws IOException {
+        if (tampon.remaining() < place) {
+            tampon.flip();
+            while (tampon.hasRemaining()) {
+                canal.write(tampon);
+            }
+            tampon.clear();
+        }
+        return tampon;
+    }
+
+    public int getNbSommets() {
+        return nbSommets;
+    }
+
+    public int getNbAretes() {
+        return nbEntreesAdjacence / 2;
+    }
+
+    /**
+     * @return le rang du sommet d'indice {@code indice}, ou -1 s'il n'est pas dans le graphe
+     */
+    public int getRang(int indice) {
+        int bas = 0;
+        int haut = nbSommets - 1;
+        while (bas <= haut) {
+            int milieu = (bas + haut) >>> 1;
+            int valeur = indices.get(milieu);
+            if (valeur < indice) {
+                bas = milieu + 1;
+            } else if (valeur > indice) {
+                haut = milieu - 1;
+            } else {
+                return milieu;
+            }
+        }
+        return -1;
+    }
+
+    public int getIndice(int rang) {
+        return indices.get(rang);
+    }
+
+    public int getSurcout(int rang) {
+        return surcouts.get(rang);
+    }
+
+    public int getNbPointsVictoire(int rang) {
+        return pointsVictoire.get(rang);
+    }
+
+    /**
+     * @return l'ensemble des joueurs ayant un rail sur le sommet, sous forme de masque de bits
+     * (le bit {@code j} vaut 1 si le joueur {@code j} a un rail sur la tuile)
+     */
+    public long getMasqueJoueurs(int rang) {
+        return joueurs.get(rang);
+    }
+
+    public boolean hasRail(int rang, int joueur) {
+        return (joueurs.get(rang) & (1L << joueur)) != 0;
+    }
+
+    public int degre(int rang) {
+        return debutsVoisins.get(rang + 1) - debutsVoisins.get(rang);
+    }
+
+    /**
+     * @return le rang du {@code k}-ième voisin du sommet de rang {@code rang} (voisins triés par indice)
+     */
+    public int getVoisin(int rang, int k) {
+        return voisins.get(debutsVoisins.get(rang) + k);
+    }
+
+    public boolean estVoisin(int rang, int autreRang) {
+        int fin = debutsVoisins.get(rang + 1);
+        for (int k = debutsVoisins.get(rang); k < fin; k++) {
+            if (voisins.get(k) == autreRang) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return un {@link Graphe} modifiable équivalent à l'instantané
+     */
+    public Graphe versGraphe() {
+        Sommet[] sommets = new Sommet[nbSommets];
+        Graphe graphe = new Graphe();
+        for (int rang = 0; rang < nbSommets; rang++) {
+            sommets[rang] = new Sommet.SommetBuilder().setIndice(getIndice(rang)).setSurcout(getSurcout(rang))
+                    .setNbPointsVictoire(getNbPointsVictoire(rang))
+                    .setJoueurs(new EnsembleJoueurs(getMasqueJoueurs(rang))).createSommet();
+            graphe.ajouterSommet(sommets[rang]);
+        }
+        for (int rang = 0; rang < nbSommets; rang++) {
+            for (int k = 0; k < degre(rang); k++) {
+                graphe.ajouterArete(sommets[rang], sommets[getVoisin(rang, k)]);
+            }
+        }
+        return graphe;
+    }
+}
@@ -0,0 +1,410 @@
+package fr.umontpellier.iut.graphes;
+
+import fr.umontpellier.iut.trains.plateau.Tuile;
+
+import java.util.*;
+
+/**
+ * Graphe d'un plateau en grille hexagonale décalée (même disposition que {@code Plateau.placerTuiles}).
+ * Les voisins d'une tuile ne sont pas stockés : ils sont calculés à partir de sa ligne et de sa colonne.
+ * Seules les exceptions à la grille sont mémorisées : les arêtes supprimées (liste triée, en général
+ * très courte) et les tuiles mer (un bit par tuile).
+ * <p>
+ * Les sommets sont indexés comme les tuiles du plateau (ordre de lecture). Les lignes paires ont
+ * {@code largeurLignesPaires} tuiles et les lignes impaires {@code largeurLignesImpaires} tuiles.
+ * <p>
+ * Cette classe n'hérite pas de {@link Graphe} : {@code Graphe} est une classe concrète dont tous les
+ * algorithmes parcourent des ensembles explicites de {@link Sommet}, qu'un sous-type devrait matérialiser
+ * (ce qui annulerait le gain en mémoire). Les opérations courantes (voisins, degré, connexité, distance)
+ * sont donc fournies directement sur les indices, et {@link #versGraphe()} construit le {@code Graphe}
+ * équivalent là où un {@code Graphe} est attendu.
+ */
+public class GrapheHexagonal {
+    /**
+     * Nombre maximal de voisins d'une tuile hexagonale.
+     */
+    public static final int DEGRE_MAX = 6;
+
+    private final int nbLignes;
+    private final int largeurLignesPaires;
+    private final int largeurLignesImpaires;
+    private final int nbCases;
+    /**
+     * Tuiles mer (qui ne sont pas des sommets du graphe).
+     */
+    private final BitSet mer;
+    /**
+     * Arêtes supprimées par rapport à la grille complète, codées par {@link #cle(int, int)} et triées.
+     */
+    private long[] aretesSupprimees;
+    private int nbAretesSupprimees;
+    /**
+     * Surcoût de chaque tuile (optionnel, {@code null} si tous les surcoûts sont nuls).
+     */
+    private byte[] surcouts;
+
+    /**
+     * Construit la grille complète (sans mer ni arête supprimée).
+     */
+    public GrapheHexagonal(int nbLignes, int largeurLignesPaires, int largeurLignesImpaires) {
+        if (nbLignes < 0 || largeurLignesPaires < 0 || largeurLignesImpaires < 0) {
+            throw new IllegalArgumentException("Dimensions de grille invalides");
+        }
+        this.nbLignes = nbLignes;
+        this.largeurLignesPaires = largeurLignesPaires;
+        this.largeurLignesImpaires = largeurLignesImpaires;
+        this.nbCases = debutLigne(nbLignes);
+        this.mer = new BitSet(nbCases);
+        this.aretesSupprimees = new long[0];
+    }
+
+    /**
+     * Construit le graphe d'un plateau à partir de ses tuiles (dans l'ordre de lecture).
+     * Les tuiles mer et les voisinages supprimés du plateau sont relevés comme exceptions,
+     * le surcoût de chaque tuile est recopié.
+     *
+     * @throws IllegalArgumentException si les tuiles ne forment pas une grille hexagonale de ces dimensions
+     */
+    public GrapheHexagonal(List<Tuile> tuiles, int largeurLignesPaires, int largeurLignesImpaires) {
+        this(nbLignesPour(tuiles.size(), largeurLignesPaires, largeurLignesImpaires),
+                largeurLignesPaires, largeurLignesImpaires);
+        if (nbCases != tuiles.size()) {
+            throw new IllegalArgumentException("Le nombre de tuiles ne correspond pas à une grille complète");
+        }
+        int[] voisins = new int[DEGRE_MAX];
+        for (int i = 0; i < nbCases; i++) {
+            Tuile tuile = tuiles.get(i);
+            if (tuile.estMer()) {
+                mer.set(i);
+            }
+            int nbVoisinsGrille = voisinsGrille(i, voisins);
+            int nbVoisinsRelies = 0;
+            for (int k = 0; k < nbVoisinsGrille; k++) {
+                if (tuile.estReliee(tuiles.get(voisins[k]))) {
+                    nbVoisinsRelies++;
+                } else if (i < voisins[k]) {
+                    supprimerArete(i, voisins[k]);
+                }
+            }
+            if (nbVoisinsRelies != tuile.getVoisines().size()) {
+                throw new IllegalArgumentException("La tuile " + i + " a des voisines hors de la grille hexagonale");
+            }
+            setSurcout(i, tuile.getSurcout());
+        }
+    }
+
+    private static int nbLignesPour(int nbTuiles, int largeurLignesPaires, int largeurLignesImpaires) {
+        int bloc = largeurLignesPaires + largeurLignesImpaires;
+        if (bloc == 0) {
+            return 0;
+        }
+        int nbLignes = 2 * (nbTuiles / bloc);
+        if (nbTuiles % bloc != 0) {
+            nbLignes++;
+        }
+        return nbLignes;
+    }
+
+    private static long cle(int i, int j) {
+        return i < j ? ((long) i << 32) | j : ((long) j << 32) | i;
+    }
+
+    /**
+     * @return l'indice de la première tuile de la ligne {@code ligne}
+     */
+    private int debutLigne(int ligne) {
+        return (ligne / 2) * (largeurLignesPaires + largeurLignesImpaires) + (ligne % 2) * largeurLignesPaires;
+    }
+
+    private int largeur(int ligne) {
+        return ligne % 2 == 0 ? largeurLignesPaires : largeurLignesImpaires;
+    }
+
+    public int getNbLignes() {
+        return nbLignes;
+    }
+
+    /**
+     * @return le nombre de cases de la grille (tuiles mer comprises)
+     */
+    public int getNbCases() {
+        return nbCases;
+    }
+
+    public int getLigne(int i) {
+        int bloc = largeurLignesPaires + largeurLignesImpaires;
+        return 2 * (i / bloc) + (i % bloc < largeurLignesPaires ? 0 : 1);
+    }
+
+    public int getColonne(int i) {
+        return i - debutLigne(getLigne(i));
+    }
+
+    /**
+     * @return l'indice de la case en ({@code ligne}, {@code colonne}) ou -1 si elle est hors de la grille
+     */
+    public int getIndice(int ligne, int colonne) {
+        if (ligne < 0 || ligne >= nbLignes || colonne < 0 || colonne >= largeur(ligne)) {
+            return -1;
+        }
+        return debutLigne(ligne) + colonne;
+    }
+
+    /**
+     * Place une tuile mer sur la case {@code i} (la case n'est alors plus un sommet du graphe).
+     */
+    public void ajouterMer(int i) {
+        mer.set(i);
+    }
+
+    public boolean estMer(int i) {
+        return mer.get(i);
+    }
+
+    /**
+     * @return true si et seulement si {@code i} est un sommet du graphe (case de la grille qui n'est pas une mer)
+     */
+    public boolean contientSommet(int i) {
+        return i >= 0 && i < nbCases && !mer.get(i);
+    }
+
+    /**
+     * Supprime l'arête entre deux cases voisines de la grille (ne fait rien si elle est déjà supprimée).
+     */
+    public void supprimerArete(int i, int j) {
+        long cle = cle(i, j);
+        int position = Arrays.binarySearch(aretesSupprimees, 0, nbAretesSupprimees, cle);
+        if (position >= 0) {
+            return;
+        }
+        position = -position - 1;
+        if (nbAretesSupprimees == aretesSupprimees.length) {
+            aretesSupprimees = Arrays.copyOf(aretesSupprimees, Math.max(4, 2 * nbAretesSupprimees));
+        }
+        System.arraycopy(aretesSupprimees, position, aretesSupprimees, position + 1, nbAretesSupprimees - position);
+        aretesSupprimees[position] = cle;
+        nbAretesSupprimees++;
+    }
+
+    private boolean estSupprimee(int i, int j) {
+        return nbAretesSupprimees > 0
+                && Arrays.binarySearch(aretesSupprimees, 0, nbAretesSupprimees, cle(i, j)) >= 0;
+    }
+
+    public int getSurcout(int i) {
+        return surcouts == null ? 0 : surcouts[i];
+    }
+
+    /**
+     * Fixe le surcoût de la case {@code i} (doit tenir sur un octet).
+     */
+    public void setSurcout(int i, int surcout) {
+        if (surcouts == null) {
+            if (surcout == 0) {
+                return;
+            }
+            surcouts = new byte[nbCases];
+        }
+        surcouts[i] = (byte) surcout;
+    }
+
+    /**
+     * Écrit dans {@code voisins} les cases voisines de {@code i} dans la grille complète
+     * (sans tenir compte des exceptions), selon la même règle que {@code Plateau.placerTuiles}.
+     *
+     * @return le nombre de voisins écrits
+     */
+    private int voisinsGrille(int i, int[] voisins) {
+        int ligne = getLigne(i);
+        int colonne = i - debutLigne(ligne);
+        int n = 0;
+        n = ajouterSiExiste(voisins, n, ligne, colonne - 1);
+        n = ajouterSiExiste(voisins, n, ligne, colonne + 1);
+        n = ajouterSiExiste(voisins, n, ligne - 1, colonne);
+        n = ajouterSiExiste(voisins, n, ligne + 1, colonne);
+        if (ligne % 2 == 0) {
+            n = ajouterSiExiste(voisins, n, ligne - 1, colonne - 1);
+            n = ajouterSiExiste(voisins, n, ligne + 1, colonne - 1);
+        } else {
+            n = ajouterSiExiste(voisins, n, ligne - 1, colonne + 1);
+            n = ajouterSiExiste(voisins, n, ligne + 1, colonne + 1);
+        }
+        return n;
+    }
+
+    private int ajouterSiExiste(int[] voisins, int n, int ligne, int colonne) {
+        int j = getIndice(ligne, colonne);
+        if (j >= 0) {
+            voisins[n++] = j;
+        }
+        return n;
+    }
+
+    /**
+     * Écrit les voisins du sommet {@code i} dans le tableau {@code voisins} (de taille au moins
+     * {@link #DEGRE_MAX}), sans allocation.
+     *
+     * @return le nombre de voisins
+     */
+    public int getVoisins(int i, int[] voisins) {
+        if (!contientSommet(i)) {
+            return 0;
+        }
+        int nbGrille = voisinsGrille(i, voisins);
+        int n = 0;
+        for (int k = 0; k < nbGrille; k++) {
+            int j = voisins[k];
+            if (!mer.get(j) && !estSupprimee(i, j)) {
+                voisins[n++] = j;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * @return les indices des voisins du sommet {@code i}
+     */
+    public int[] getVoisins(int i) {
+        int[] voisins = new int[DEGRE_MAX];
+        return Arrays.copyOf(voisins, getVoisins(i, voisins));
+    }
+
+    public boolean estVoisin(int i, int j) {
+        int[] voisins = new int[DEGRE_MAX];
+        int n = getVoisins(i, voisins);
+        for (int k = 0; k < n; k++) {
+            if (voisins[k] == j) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int degre(int i) {
+        return getVoisins(i, new int[DEGRE_MAX]);
+    }
+
+    /**
+     * @return l'ordre du graphe (les tuiles mer ne sont pas des sommets)
+     */
+    public int getNbSommets() {
+        return nbCases - mer.cardinality();
+    }
+
+    public int getNbAretes() {
+        int[] voisins = new int[DEGRE_MAX];
+        int total = 0;
+        for (int i = 0; i < nbCases; i++) {
+            total += getVoisins(i, voisins);
+        }
+        return total / 2;
+    }
+
+    public int degreMax() {
+        int[] voisins = new int[DEGRE_MAX];
+        int degreMax = 0;
+        for (int i = 0; i < nbCases; i++) {
+            degreMax = Math.max(degreMax, getVoisins(i, voisins));
+        }
+        return degreMax;
+    }
+
+    /**
+     * @return true si et seulement si le graphe est connexe (le graphe vide est connexe)
+     */
+    public boolean estConnexe() {
+        int depart = mer.nextClearBit(0);
+        if (depart >= nbCases) {
+            return true;
+        }
+        return parcourir(depart).cardinality() == getNbSommets();
+    }
+
+    /**
+     * @return l'ensemble des sommets accessibles depuis {@code depart} (parcours en largeur)
+     */
+    public BitSet parcourir(int depart) {
+        BitSet vus = new BitSet(nbCases);
+        if (!contientSommet(depart)) {
+            return vus;
+        }
+        int[] file = new int[getNbSommets()];
+        int debut = 0;
+        int fin = 0;
+        int[] voisins = new int[DEGRE_MAX];
+        file[fin++] = depart;
+        vus.set(depart);
+        while (debut < fin) {
+            int s = file[debut++];
+            int n = getVoisins(s, voisins);
+            for (int k = 0; k < n; k++) {
+                if (!vus.get(voisins[k])) {
+                    vus.set(voisins[k]);
+                    file[fin++] = voisins[k];
+                }
+            }
+        }
+        return vus;
+    }
+
+    /**
+     * @return le surcoût total minimal d'un parcours de {@code depart} à {@code arrivee}
+     * (le surcoût de la tuile de départ n'est pas compté), ou {@code Integer.MAX_VALUE}
+     * si {@code arrivee} n'est pas accessible depuis {@code depart}
+     */
+    public int getDistance(int depart, int arrivee) {
+        if (!contientSommet(depart) || !contientSommet(arrivee)) {
+            return Integer.MAX_VALUE;
+        }
+        int[] distances = new int[nbCases];
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        PriorityQueue<long[]> file = new PriorityQueue<>(Comparator.comparingLong(e -> e[0]));
+        int[] voisins = new int[DEGRE_MAX];
+        distances[depart] = 0;
+        file.add(new long[]{0, depart});
+        while (!file.isEmpty()) {
+            long[] courant = file.poll();
+            int s = (int) courant[1];
+            if (courant[0] > distances[s]) {
+                continue;
+            }
+            if (s == arrivee) {
+                return distances[s];
+            }
+            int n = getVoisins(s, voisins);
+            for (int k = 0; k < n; k++) {
+                int v = voisins[k];
+                int distance = distances[s] + getSurcout(v);
+                if (distance < distances[v]) {
+                    distances[v] = distance;
+                    file.add(new long[]{distance, v});
+                }
+            }
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return un {@link Graphe} explicite équivalent (pour utiliser les algorithmes de {@code Graphe})
+     */
+    public Graphe versGraphe() {
+        Graphe graphe = new Graphe();
+        Sommet[] sommets = new Sommet[nbCases];
+        for (int i = 0; i < nbCases; i++) {
+            if (!mer.get(i)) {
+                sommets[i] = new Sommet.SommetBuilder().setIndice(i).setSurcout(getSurcout(i)).createSommet();
+                graphe.ajouterSommet(sommets[i]);
+            }
+        }
+        int[] voisins = new int[DEGRE_MAX];
+        for (int i = 0; i < nbCases; i++) {
+            int n = getVoisins(i, voisins);
+            for (int k = 0; k < n; k++) {
+                if (i < voisins[k]) {
+                    graphe.ajouterArete(sommets[i], sommets[voisins[k]]);
+                }
+            }
+        }
+        return graphe;
+    }
+}
@@ -26,7 +26,7 @@ public class Sommet {
     /**
      * Ensemble des joueurs ayant un rail sur la tuile.
      */
-    private Set<Integer> joueurs;
+    private EnsembleJoueurs joueurs;
     /**
      * Ensemble des sommets voisins.
      */
@@ -38,7 +38,7 @@ public class Sommet {
     private Sommet(int i, int surcout, Set<Integer> joueurs, int nbPointsVictoire) {
         this.i = i;
         this.surcout = surcout;
-        this.joueurs = joueurs;
+        this.joueurs = EnsembleJoueurs.de(joueurs);
         this.nbPointsVictoire = nbPointsVictoire;
         this.voisins = new HashSet<>();
     }
@@ -52,12 +52,7 @@ public class Sommet {
     public Sommet(Tuile tuile, Jeu jeu) {
         this.i = jeu.getTuiles().indexOf(tuile);
         this.surcout = tuile.getSurcout();
-        this.joueurs = new HashSet<>();
-        for (int i = 0; i < jeu.getJoueurs().size(); i++) {
-            if (tuile.hasRail(jeu.getJoueurs().get(i))) {
-                joueurs.add(i);
-            }
-        }
+        this.joueurs = new EnsembleJoueurs(tuile.getMasqueRails());
         this.nbPointsVictoire = tuile.getNbPointsVictoire();
         this.voisins = new HashSet<>();
 
@@ -71,7 +66,7 @@ public class Sommet {
         this.i = s.i;
         this.surcout = s.surcout;
         this.nbPointsVictoire = s.nbPointsVictoire;
-        this.joueurs = new HashSet<>(s.joueurs);
+        this.joueurs = new EnsembleJoueurs(s.joueurs.getMasque());
         this.voisins = new HashSet<>(s.voisins);
     }
 
@@ -83,6 +78,13 @@ public class Sommet {
         return joueurs;
     }
 
+    /**
+     * @return l'ensemble des joueurs ayant un rail sur la tuile, sous forme de masque de bits
+     */
+    public long getMasqueJoueurs() {
+        return joueurs.getMasque();
+    }
+
     public int getNbPointsVictoire() {
         return nbPointsVictoire;
     }
@@ -125,7 +127,7 @@ public class Sommet {
         private int i;
         private int surcout = 0;
         private int nbPointsVictoire = 0;
-        private Set<Integer> joueurs = new HashSet<>();
+        private Set<Integer> joueurs = new EnsembleJoueurs();
 
         public SommetBuilder setIndice(int i) {
             this.i = i;
@@ -0,0 +1,240 @@
+package fr.umontpellier.iut.gui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * Différences entre deux documents JSON, au format JSON Patch (RFC 6902 : opérations {@code add},
+ * {@code remove} et {@code replace}, chemins au format JSON Pointer).
+ * <p>
+ * Les objets sont comparés membre à membre et les tableaux élément à élément. Un tableau dont les premiers
+ * éléments ont été retirés et d'autres ajoutés à la fin (comme le log de la partie, qui ne conserve que les
+ * derniers messages) est reconnu et décrit par quelques suppressions en tête et ajouts en fin. Un tableau dont
+ * les différences seraient plus longues à écrire que son nouveau contenu est remplacé en une seule opération.
+ */
+public final class DiffJson {
+    /**
+     * Nombre maximal d'éléments retirés en tête d'un tableau pour que le décalage soit reconnu
+     */
+    private static final int DECALAGE_MAX = 16;
+    /**
+     * Longueur approximative (en caractères) d'une opération
+     */
+    private static final int TAILLE_OPERATION = 64;
+
+    private DiffJson() {
+    }
+
+    /**
+     * @return la liste des opérations qui transforment {@code avant} en {@code apres} (vide si les deux
+     * documents sont égaux)
+     */
+    public static JsonArray diff(JsonElement avant, JsonElement apres) {
+        JsonArray patch = new JsonArray();
+        diff("", avant, apres, patch);
+        return patch;
+    }
+
+    private static void diff(String chemin, JsonElement avant, JsonElement apres, JsonArray patch) {
+        if (avant.equals(apres)) {
+            return;
+        }
+        if (avant.isJsonObject() && apres.isJsonObject()) {
+            diffObjets(chemin, avant.getAsJsonObject(), apres.getAsJsonObject(), patch);
+        } else if (avant.isJsonArray() && apres.isJsonArray()) {
+            diffTableaux(chemin, avant.getAsJsonArray(), apres.getAsJsonArray(), patch);
+        } else {
+            patch.add(operation("replace", chemin, apres));
+        }
+    }
+
+    private static void diffObjets(String chemin, JsonObject avant, JsonObject apres, JsonArray patch) {
+        for (String cle : avant.keySet()) {
+            if (!apres.has(cle)) {
+                patch.add(operation("remove", chemin + "/" + echapper(cle), null));
+            }
+        }
+        for (Map.Entry<String, JsonElement> membre : apres.entrySet()) {
+            String cheminMembre = chemin + "/" + echapper(membre.getKey());
+            JsonElement ancien = avant.get(membre.getKey());
+            if (ancien == null) {
+                patch.add(operation("add", cheminMembre, membre.getValue()));
+            } else {
+                diff(cheminMembre, ancien, membre.getValue(), patch);
+            }
+        }
+    }
+
+    private static void diffTableaux(String chemin, JsonArray avant, JsonArray apres, JsonArray patch) {
+        JsonArray operations = new JsonArray();
+        int decalage = chercherDecalage(avant, apres);
+        if (decalage > 0) {
+            for (int i = 0; i < decalage; i++) {
+                operations.add(operation("remove", chemin + "/0", null));
+            }
+            for (int i = avant.size() - decalage; i < apres.size(); i++) {
+                operations.add(operation("add", chemin + "/" + i, apres.get(i)));
+            }
+        } else {
+            int communs = Math.min(avant.size(), apres.size());
+            for (int i = 0; i < communs; i++) {
+                diff(chemin + "/" + i, avant.get(i), apres.get(i), operations);
+            }
+            for (int i = avant.size() - 1; i >= communs; i--) {
+                operations.add(operation("remove", chemin + "/" + i, null));
+            }
+            for (int i = communs; i < apres.size(); i++) {
+                operations.add(operation("add", chemin + "/" + i, apres.get(i)));
+            }
+        }
+        if (operations.size() > 1 && estPlusLong(operations, apres)) {
+            // le tableau a trop changé (par exemple une pioche mélangée) : il est remplacé en une fois
+            patch.add(operation("replace", chemin, apres));
+        } else {
+            patch.addAll(operations);
+        }
+    }
+
+    /**
+     * @return vrai si les opérations sont plus longues à écrire que le tableau {@code apres} (qui n'est écrit
+     * que si les opérations sont suffisamment longues)
+     */
+    private static boolean estPlusLong(JsonArray operations, JsonArray apres) {
+        int longueur = operations.toString().length();
+        return longueur > TAILLE_OPERATION && apres.toString().length() < longueur;
+    }
+
+    /**
+     * @return le nombre {@code k > 0} d'éléments retirés en tête de {@code avant} si les éléments restants
+     * forment le début de {@code apres}, ou 0 si {@code apres} n'est pas obtenu de cette manière
+     */
+    private static int chercherDecalage(JsonArray avant, JsonArray apres) {
+        if (apres.isEmpty()) {
+            return 0;
+        }
+        for (int k = 1; k <= Math.min(DECALAGE_MAX, avant.size() - 1); k++) {
+            if (avant.size() - k > apres.size() || !avant.get(k).equals(apres.get(0))) {
+                continue;
+            }
+            boolean decale = true;
+            for (int i = k + 1; i < avant.size() && decale; i++) {
+                decale = avant.get(i).equals(apres.get(i - k));
+            }
+            if (decale) {
+                return k;
+            }
+        }
+        return 0;
+    }
+
+    private static JsonObject operation(String op, String chemin, JsonElement valeur) {
+        JsonObject operation = new JsonObject();
+        operation.addProperty("op", op);
+        operation.addProperty("path", chemin);
+        if (valeur != null) {
+            operation.add("value", valeur);
+        }
+        return operation;
+    }
+
+    private static String echapper(String cle) {
+        return cle.replace("~", "~0").replace("/", "~1");
+    }
+
+    private static String desechapper(String jeton) {
+        return jeton.replace("~1", "/").replace("~0", "~");
+    }
+
+    /**
+     * Applique un patch produit par {@link #diff(JsonElement, JsonElement)} (seules les opérations
+     * {@code add}, {@code remove} et {@code replace} sont reconnues)
+     *
+     * @return le document obtenu (le document {@code document} n'est pas modifié)
+     * @throws IllegalArgumentException si une opération n'est pas valide pour le document
+     */
+    public static JsonElement appliquer(JsonElement document, JsonArray patch) {
+        JsonElement resultat = document.deepCopy();
+        for (JsonElement element : patch) {
+            JsonObject operation = element.getAsJsonObject();
+            String op = operation.get("op").getAsString();
+            String chemin = operation.get("path").getAsString();
+            JsonElement valeur = operation.get("value");
+            if (chemin.isEmpty()) {
+                if (!op.equals("replace")) {
+                    throw new IllegalArgumentException("Opération invalide sur la racine : " + op);
+                }
+                resultat = valeur.deepCopy();
+                continue;
+            }
+            List<String> jetons = decouper(chemin);
+            JsonElement parent = resultat;
+            for (int i = 0; i < jetons.size() - 1; i++) {
+                parent = enfant(parent, jetons.get(i));
+            }
+            modifier(parent, jetons.get(jetons.size() - 1), op, valeur);
+        }
+        return resultat;
+    }
+
+    private static List<String> decouper(String chemin) {
+        if (!chemin.startsWith("/")) {
+            throw new IllegalArgumentException("Chemin invalide : " + chemin);
+        }
+        List<String> jetons = new ArrayList<>();
+        for (String jeton : chemin.substring(1).split("/", -1)) {
+            jetons.add(desechapper(jeton));
+        }
+        return jetons;
+    }
+
+    private static JsonElement enfant(JsonElement parent, String jeton) {
+        JsonElement enfant = parent.isJsonArray() ? parent.getAsJsonArray().get(indice(jeton))
+                : parent.getAsJsonObject().get(jeton);
+        if (enfant == null) {
+            throw new IllegalArgumentException("Membre inexistant : " + jeton);
+        }
+        return enfant;
+    }
+
+    private static void modifier(JsonElement parent, String jeton, String op, JsonElement valeur) {
+        if (parent.isJsonArray()) {
+            JsonArray tableau = parent.getAsJsonArray();
+            switch (op) {
+                case "add" -> {
+                    int i = jeton.equals("-") ? tableau.size() : indice(jeton);
+                    List<JsonElement> suite = new ArrayList<>();
+                    while (tableau.size() > i) {
+                        suite.add(tableau.remove(i));
+                    }
+                    tableau.add(valeur.deepCopy());
+                    suite.forEach(tableau::add);
+                }
+                case "remove" -> tableau.remove(indice(jeton));
+                case "replace" -> tableau.set(indice(jeton), valeur.deepCopy());
+                default -> throw new IllegalArgumentException("Opération inconnue : " + op);
+            }
+        } else if (parent.isJsonObject()) {
+            JsonObject objet = parent.getAsJsonObject();
+            switch (op) {
+                case "add", "replace" -> objet.add(jeton, valeur.deepCopy());
+                case "remove" -> objet.remove(jeton);
+                default -> throw new IllegalArgumentException("Opération inconnue : " + op);
+            }
+        } else {
+            throw new IllegalArgumentException("Impossible de modifier la valeur " + parent);
+        }
+    }
+
+    private static int indice(String jeton) {
+        try {
+            return Integer.parseInt(jeton);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Indice de tableau invalide : " + jeton);
+        }
+    }
+}
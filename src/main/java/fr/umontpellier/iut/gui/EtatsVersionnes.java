@@ -0,0 +1,189 @@
+package fr.umontpellier.iut.gui;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * États successifs de la partie envoyés aux clients, numérotés par version.
+ * <p>
+ * Les derniers états publiés sont conservés, ce qui permet d'envoyer à un client seulement les différences
+ * (voir {@link DiffJson}) entre l'état qu'il a acquitté et l'état courant. Si l'état acquitté n'est plus
+ * conservé (ou si le client vient de se connecter), le client reçoit l'état complet. Les messages envoyés
+ * sont de la forme :
+ * <ul>
+ * <li>{@code {"version": 12, "etat": {...}}} pour un état complet ;</li>
+ * <li>{@code {"version": 13, "depuis": 12, "patch": [...]}} pour les différences avec la version 12.</li>
+ * </ul>
+ * Les messages sont calculés hors du verrou de l'historique (la publication d'un état n'attend donc jamais
+ * un calcul de différences) et conservés pour la version courante : ils ne sont calculés qu'une fois par
+ * version de départ, quel que soit le nombre de clients.
+ */
+public class EtatsVersionnes {
+    /**
+     * Nombre d'états conservés par défaut
+     */
+    public static final int NB_ETATS_CONSERVES = 16;
+
+    private static final Gson GSON = new Gson();
+
+    private final int nbEtatsConserves;
+    /**
+     * Derniers états publiés, du plus ancien au plus récent (le dernier a le numéro {@link #version})
+     */
+    private final ArrayDeque<Etat> etats = new ArrayDeque<>();
+    private int version;
+    /**
+     * État courant au format JSON, tel qu'il est envoyé aux clients qui ne demandent pas les différences
+     */
+    private String texteEtat = "";
+    /**
+     * Messages déjà calculés pour la version courante, indexés par version de départ ({@code 0} pour l'état
+     * complet)
+     */
+    private final Map<Integer, String> messages = new HashMap<>();
+
+    public EtatsVersionnes() {
+        this(NB_ETATS_CONSERVES);
+    }
+
+    /**
+     * @param nbEtatsConserves le nombre d'états conservés pour le calcul des différences
+     */
+    public EtatsVersionnes(int nbEtatsConserves) {
+        if (nbEtatsConserves < 1) {
+            throw new IllegalArgumentException("Il faut conserver au moins un état : " + nbEtatsConserves);
+        }
+        this.nbEtatsConserves = nbEtatsConserves;
+    }
+
+    /**
+     * État publié : son texte JSON, et l'arbre correspondant qui n'est construit que si des différences sont
+     * calculées à partir de cet état ou vers cet état
+     */
+    private static class Etat {
+        private final String texte;
+        private JsonElement arbre;
+
+        private Etat(String texte, JsonElement arbre) {
+            this.texte = texte;
+            this.arbre = arbre;
+        }
+
+        private synchronized JsonElement getArbre() {
+            if (arbre == null) {
+                arbre = JsonParser.parseString(texte);
+            }
+            return arbre;
+        }
+    }
+
+    /**
+     * Publie un nouvel état (qui ne doit plus être modifié ensuite)
+     *
+     * @return le numéro de version du nouvel état
+     */
+    public synchronized int publier(JsonElement etat) {
+        return publier(new Etat(GSON.toJson(etat), etat));
+    }
+
+    /**
+     * Publie un nouvel état donné au format JSON
+     *
+     * @return le numéro de version du nouvel état
+     */
+    public synchronized int publier(String texte) {
+        return publier(new Etat(texte, null));
+    }
+
+    private int publier(Etat etat) {
+        etats.addLast(etat);
+        if (etats.size() > nbEtatsConserves) {
+            etats.removeFirst();
+        }
+        version++;
+        texteEtat = etat.texte;
+        messages.clear();
+        return version;
+    }
+
+    /**
+     * @return le numéro de version de l'état courant ({@code 0} si aucun état n'a été publié)
+     */
+    public synchronized int getVersion() {
+        return version;
+    }
+
+    /**
+     * @return l'état courant au format JSON (chaîne vide si aucun état n'a été publié)
+     */
+    public synchronized String getTexteEtat() {
+        return texteEtat;
+    }
+
+    /**
+     * Renvoie le message à envoyer à un client qui a acquitté la version {@code versionAcquittee} : les
+     * différences avec cette version si elle est conservée, l'état complet sinon
+     *
+     * @param versionAcquittee la dernière version reçue par le client ({@code 0} s'il n'en a reçu aucune)
+     * @return le message, ou {@code null} si le client a déjà l'état courant ou si aucun état n'a été publié
+     */
+    public String getMessage(int versionAcquittee) {
+        int versionCourante;
+        int depuis;
+        Etat etatAcquitte;
+        Etat etatCourant;
+        synchronized (this) {
+            if (version == 0 || versionAcquittee == version) {
+                return null;
+            }
+            etatAcquitte = getEtat(versionAcquittee);
+            depuis = etatAcquitte == null ? 0 : versionAcquittee;
+            String message = messages.get(depuis);
+            if (message != null) {
+                return message;
+            }
+            versionCourante = version;
+            etatCourant = etats.getLast();
+        }
+        // le calcul se fait hors du verrou : la publication d'un nouvel état n'attend pas un calcul de différences
+        String message;
+        if (etatAcquitte == null) {
+            // l'état courant est recopié tel quel, sans être analysé
+            message = "{\"version\":" + versionCourante + ",\"etat\":" + etatCourant.texte + "}";
+        } else {
+            JsonObject objet = new JsonObject();
+            objet.addProperty("version", versionCourante);
+            objet.addProperty("depuis", depuis);
+            objet.add("patch", DiffJson.diff(etatAcquitte.getArbre(), etatCourant.getArbre()));
+            message = GSON.toJson(objet);
+        }
+        synchronized (this) {
+            if (version == versionCourante) {
+                messages.putIfAbsent(depuis, message);
+            }
+        }
+        return message;
+    }
+
+    /**
+     * @return l'état de numéro {@code v} s'il est conservé, {@code null} sinon
+     */
+    private Etat getEtat(int v) {
+        int premiereVersion = version - etats.size() + 1;
+        if (v < premiereVersion || v > version) {
+            return null;
+        }
+        Iterator<Etat> iterateur = etats.descendingIterator();
+        for (int i = version; i > v; i--) {
+            iterateur.next();
+        }
+        return iterateur.next();
+    }
+}
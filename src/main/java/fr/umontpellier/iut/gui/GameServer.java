@@ -5,9 +5,17 @@ import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
+import javax.websocket.CloseReason;
 import javax.websocket.DeploymentException;
+import javax.websocket.SendResult;
 import javax.websocket.Session;
 
 import org.glassfish.tyrus.server.Server;
@@ -15,18 +23,46 @@ import org.glassfish.tyrus.server.Server;
 import com.sun.net.httpserver.HttpServer;
 
 import fr.umontpellier.iut.trains.cartes.FabriqueListeDeCartes;
+import fr.umontpellier.iut.trains.cartes.ListeDeCartes;
 import fr.umontpellier.iut.trains.plateau.Plateau;
 
+/**
+ * Serveur de la partie : interface graphique (HTTP) et communication avec les clients (websocket).
+ * <p>
+ * Par défaut, un client reçoit l'état complet de la partie à chaque changement. Un client qui envoie le
+ * message {@code "DELTA"} reçoit ensuite des états versionnés (voir {@link EtatsVersionnes}) : l'état
+ * complet, puis seulement les différences depuis la dernière version qu'il a acquittée en envoyant
+ * {@code "ACK:<version>"}. Les autres messages des clients sont des instructions pour la partie.
+ * <p>
+ * Les états sont envoyés de façon asynchrone, sans bloquer le fil d'exécution de la partie : un client
+ * qui ne suit pas reçoit directement le dernier état publié, et il est exclu si un envoi ne se termine pas.
+ */
 public class GameServer {
     /**
-     * Liste des clients connectés au serveur
+     * Durée maximale par défaut (en millisecondes) d'un envoi à un client, au-delà de laquelle le client est
+     * exclu
      */
-    private static final ArrayList<Session> clients = new ArrayList<>();
+    public static final long DELAI_ENVOI_MAX = 10_000;
     /**
-     * Description de l'état du jeu, envoyé aux clients pour la mise à jour de
+     * Fils d'exécution qui calculent et commencent les envois aux clients (et ferment les connexions des
+     * clients exclus)
+     */
+    private static final ExecutorService ENVOIS = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2), tache -> {
+                Thread thread = new Thread(tache, "GameServer-envois");
+                thread.setDaemon(true);
+                return thread;
+            });
+    private static volatile long delaiEnvoiMax = TimeUnit.MILLISECONDS.toNanos(DELAI_ENVOI_MAX);
+    /**
+     * Clients connectés au serveur (la table est modifiée par les fils d'exécution du serveur websocket)
+     */
+    private static final Map<Session, Client> clients = new ConcurrentHashMap<>();
+    /**
+     * États successifs de la partie, envoyés aux clients pour la mise à jour de
      * l'interface graphique
      */
-    private static String etatJeu = "";
+    private static final EtatsVersionnes etats = new EtatsVersionnes();
     /**
      * Instance de jeu exécutée par le serveur
      */
@@ -36,9 +72,14 @@ public class GameServer {
         // Lancement de la partie
         String[] nomsJoueurs = { "Guybrush", "Largo" };
 
+        // Graine de la partie (passée en argument pour rejouer une partie à l'identique)
+        long graine = args.length > 0 ? Long.parseLong(args[0]) : new SplittableRandom().nextLong();
+        System.out.println("Graine de la partie : " + graine);
+
         // Tirer aléatoirement 8 cartes préparation
         List<String> cartesPreparation = new ArrayList<>(FabriqueListeDeCartes.getNomsCartesPreparation());
-        Collections.shuffle(cartesPreparation);
+        Collections.sort(cartesPreparation);
+        ListeDeCartes.melanger(cartesPreparation, new SplittableRandom(graine));
         String[] nomsCartes = cartesPreparation.subList(0, 8).toArray(new String[0]);
 
         // DEBUG: toutes les cartes sont disponibles
@@ -48,7 +89,7 @@ public class GameServer {
         // On peut aussi donner explicitement les cartes à utiliser :
         // String[] nomsCartes = {"Aiguillage", "Passage en gare", "Salle de contrôle"};
         
-        jeu = new JeuWebsocket(nomsJoueurs, nomsCartes, Plateau.OSAKA);
+        jeu = new JeuWebsocket(nomsJoueurs, nomsCartes, Plateau.OSAKA, graine);
 
         // DEBUG: placement auto en début de partie
         // jeu.addInput("TUILE:3");
@@ -77,6 +118,117 @@ public class GameServer {
         }
     }
 
+    /**
+     * Client connecté : mode de réception de l'état de la partie et file d'envoi.
+     * <p>
+     * Un seul envoi est en cours à la fois. La file d'envoi ne contient qu'un état en attente au plus : si
+     * plusieurs états sont publiés pendant un envoi, seul le dernier est envoyé ensuite. Le message (état
+     * complet ou différences) est calculé au moment de l'envoi, par un fil de {@link #ENVOIS} ou par celui
+     * qui signale la fin de l'envoi précédent, jamais par le fil d'exécution de la partie.
+     */
+    private static class Client {
+        private final Session session;
+        /**
+         * Vrai si le client reçoit les différences entre états plutôt que l'état complet
+         */
+        private boolean differences;
+        /**
+         * Dernière version de l'état acquittée par le client ({@code 0} si aucune)
+         */
+        private int versionAcquittee;
+        /**
+         * Vrai si un état publié n'a pas encore été envoyé au client
+         */
+        private boolean etatEnAttente;
+        /**
+         * Vrai si un envoi est prévu ou en cours
+         */
+        private boolean envoiEnCours;
+        /**
+         * Instant (en nanosecondes) du début de l'envoi en cours
+         */
+        private long debutEnvoi;
+
+        private Client(Session session) {
+            this.session = session;
+        }
+
+        /**
+         * Indique au client qu'un nouvel état est disponible, et prévoit son envoi si aucun envoi n'est en
+         * cours (sinon l'état sera envoyé à la fin de l'envoi en cours)
+         */
+        private void signalerNouvelEtat() {
+            synchronized (this) {
+                etatEnAttente = true;
+                if (envoiEnCours) {
+                    return;
+                }
+                envoiEnCours = true;
+                debutEnvoi = System.nanoTime();
+            }
+            ENVOIS.execute(this::envoyerEtatEnAttente);
+        }
+
+        private void demanderDifferences() {
+            synchronized (this) {
+                differences = true;
+                versionAcquittee = 0;
+            }
+            signalerNouvelEtat();
+        }
+
+        private synchronized void acquitter(int version) {
+            if (version <= etats.getVersion()) {
+                versionAcquittee = Math.max(versionAcquittee, version);
+            }
+        }
+
+        /**
+         * @return vrai si l'envoi en cours a commencé depuis plus de {@link #delaiEnvoiMax} nanosecondes
+         */
+        private synchronized boolean estTropLent(long maintenant) {
+            return envoiEnCours && maintenant - debutEnvoi > delaiEnvoiMax;
+        }
+
+        /**
+         * Envoie l'état en attente s'il y en a un, termine l'envoi en cours sinon
+         */
+        private void envoyerEtatEnAttente() {
+            boolean differencesDemandees;
+            int version;
+            synchronized (this) {
+                if (!etatEnAttente) {
+                    envoiEnCours = false;
+                    return;
+                }
+                etatEnAttente = false;
+                differencesDemandees = differences;
+                version = versionAcquittee;
+                debutEnvoi = System.nanoTime();
+            }
+            String message = differencesDemandees ? etats.getMessage(version) : etats.getTexteEtat();
+            if (message == null || message.isEmpty()) {
+                // rien à envoyer : un état a peut-être été publié entre-temps
+                envoyerEtatEnAttente();
+                return;
+            }
+            try {
+                session.getAsyncRemote().sendText(message, this::terminerEnvoi);
+            } catch (RuntimeException e) {
+                // session déjà fermée
+                exclure(this);
+            }
+        }
+
+        private void terminerEnvoi(SendResult resultat) {
+            if (resultat.isOK()) {
+                envoyerEtatEnAttente();
+            } else {
+                exclure(this);
+            }
+        }
+    }
+
     /**
      * Ajoute une nouvelle instruction à la file d'instructions
      * (cette méthode est appelée lorsqu'un message est reçue sur la websocket)
@@ -88,37 +240,83 @@ public class GameServer {
     }
 
     /**
-     * Met à jour l'état de la partie, et envoie le nouvel état à tous les clients
-     * connectés
+     * Traite un message reçu d'un client : demande de différences ({@code "DELTA"}), acquittement d'une
+     * version ({@code "ACK:<version>"}) ou instruction pour la partie
      * 
-     * @param etatJeu l'état de la partie
+     * @param session la session du client
+     * @param message le message reçu
      */
-    public static void setEtatJeu(String etatJeu) {
-        GameServer.etatJeu = etatJeu;
-        // Envoie l'état de la partie à tous les clients
-        try {
-            for (Session session : clients) {
-                session.getBasicRemote().sendText(etatJeu);
+    public static void recevoirMessage(Session session, String message) {
+        Client client = clients.get(session);
+        if (client != null && message.equals("DELTA")) {
+            client.demanderDifferences();
+        } else if (client != null && message.startsWith("ACK:")) {
+            try {
+                client.acquitter(Integer.parseInt(message.substring(4)));
+            } catch (NumberFormatException e) {
+                // acquittement invalide : ignoré
             }
-        } catch (IOException e) {
-            e.printStackTrace();
+        } else {
+            addInput(message);
+        }
+    }
+
+    /**
+     * Publie un nouvel état de la partie, et le signale à tous les clients connectés (qui recevront l'état
+     * complet, ou les différences s'ils les ont demandées). Les envois sont asynchrones et les messages sont
+     * calculés par d'autres fils d'exécution : un client lent ne ralentit pas la partie, et il est exclu si
+     * un envoi dure plus longtemps que le délai maximal (voir {@link #setDelaiEnvoiMax(long)}).
+     * 
+     * @param etatJeu l'état de la partie au format JSON
+     */
+    public static void publierEtat(String etatJeu) {
+        etats.publier(etatJeu);
+        long maintenant = System.nanoTime();
+        for (Client client : clients.values()) {
+            if (client.estTropLent(maintenant)) {
+                exclure(client);
+            } else {
+                client.signalerNouvelEtat();
+            }
+        }
+    }
+
+    /**
+     * Fixe la durée maximale (en millisecondes) d'un envoi à un client, au-delà de laquelle le client est
+     * exclu ({@link #DELAI_ENVOI_MAX} par défaut)
+     */
+    public static void setDelaiEnvoiMax(long millisecondes) {
+        delaiEnvoiMax = TimeUnit.MILLISECONDS.toNanos(millisecondes);
+    }
+
+    /**
+     * Retire un client de la liste et ferme sa connexion (la fermeture se fait dans un autre fil d'exécution
+     * car elle peut bloquer si le client ne lit plus ses messages)
+     */
+    private static void exclure(Client client) {
+        if (clients.remove(client.session, client)) {
+            ENVOIS.execute(() -> {
+                try {
+                    client.session.close(new CloseReason(CloseReason.CloseCodes.TRY_AGAIN_LATER, "Client trop lent"));
+                } catch (IOException e) {
+                    // connexion déjà interrompue
+                }
+            });
         }
     }
 
     /**
      * Ajoute un nouveau client à la liste, et lui transmet l'état actuel de la
      * partie
-     * (cette méthode est appelée lorsqu'une nouvelle connexion est établie)
+     * (cette méthode est appelée lorsqu'une nouvelle connexion est établie : un
+     * client qui se reconnecte reçoit donc toujours l'état complet)
      * 
      * @param session la session du nouveau client
      */
     public static void addClient(Session session) {
-        GameServer.clients.add(session);
-        try {
-            session.getBasicRemote().sendText(etatJeu);
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        Client client = new Client(session);
+        clients.put(session, client);
+        client.signalerNouvelEtat();
     }
 
     /**
@@ -128,6 +326,6 @@ public class GameServer {
      * @param session la session du client à retirer
      */
     public static void removeClient(Session session) {
-        GameServer.clients.remove(session);
+        clients.remove(session);
     }
 }
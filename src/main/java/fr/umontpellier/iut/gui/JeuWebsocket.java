@@ -4,8 +4,6 @@ import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 
-import com.google.gson.Gson;
-
 import fr.umontpellier.iut.trains.Bouton;
 import fr.umontpellier.iut.trains.Jeu;
 import fr.umontpellier.iut.trains.plateau.Plateau;
@@ -15,12 +13,21 @@ public class JeuWebsocket extends Jeu {
      * File d'attente des instructions recues par le serveur
      */
     private final BlockingQueue<String> inputQueue;
+    /**
+     * Sérialiseur de l'état de la partie, réutilisé à chaque instruction
+     */
+    private final SerialiseurJeu serialiseur = new SerialiseurJeu();
 
     public JeuWebsocket(String[] nomsJoueurs, String[] nomsCartes, Plateau plateau) {
         super(nomsJoueurs, nomsCartes, plateau);
         inputQueue = new LinkedBlockingQueue<>();
     }
 
+    public JeuWebsocket(String[] nomsJoueurs, String[] nomsCartes, Plateau plateau, long graine) {
+        super(nomsJoueurs, nomsCartes, plateau, graine);
+        inputQueue = new LinkedBlockingQueue<>();
+    }
+
     @Override
     public String lireLigne() {
         try {
@@ -34,7 +41,7 @@ public class JeuWebsocket extends Jeu {
     @Override
     public void prompt(String instruction, List<Bouton> boutons, boolean peutPasser) {
         super.prompt(instruction, boutons, peutPasser);
-        GameServer.setEtatJeu(new Gson().toJson(dataMap()));
+        GameServer.publierEtat(serialiseur.serialiser(this));
     }
 
     public void addInput(String input) {
@@ -0,0 +1,38 @@
+package fr.umontpellier.iut.gui;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+
+import com.google.gson.stream.JsonWriter;
+
+import fr.umontpellier.iut.trains.Jeu;
+
+/**
+ * Sérialise l'état d'une partie au format JSON (le même que celui de {@link Jeu#dataMap()}, aux positions
+ * des clés près) en écrivant directement dans un tampon réutilisé d'un appel à l'autre.
+ * <p>
+ * Comme {@code Gson}, les caractères HTML des chaînes sont échappés. Une instance n'est pas prévue pour être
+ * utilisée par plusieurs fils d'exécution à la fois.
+ */
+public class SerialiseurJeu {
+    private static final int TAILLE_INITIALE = 1 << 14;
+
+    private final StringWriter tampon = new StringWriter(TAILLE_INITIALE);
+
+    /**
+     * @return l'état de la partie {@code jeu} au format JSON
+     */
+    public String serialiser(Jeu jeu) {
+        tampon.getBuffer().setLength(0);
+        JsonWriter json = new JsonWriter(tampon);
+        json.setHtmlSafe(true);
+        try {
+            jeu.ecrireJson(json);
+        } catch (IOException e) {
+            // un StringWriter ne lève pas d'exception
+            throw new UncheckedIOException(e);
+        }
+        return tampon.toString();
+    }
+}
@@ -13,7 +13,7 @@ public class WebSocketClient {
 
     @OnMessage
     public void onMessage(String message, Session session) {
-        GameServer.addInput(message);
+        GameServer.recevoirMessage(session, message);
     }
 
     @OnClose
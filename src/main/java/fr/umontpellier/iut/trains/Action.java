@@ -0,0 +1,109 @@
+package fr.umontpellier.iut.trains;
+
+import fr.umontpellier.iut.trains.cartes.FabriqueListeDeCartes;
+
+/**
+ * Codage entier des actions possibles pendant le tour d'un joueur (choix de la boucle principale de
+ * {@link Joueur#jouerTour()}).
+ * <p>
+ * Une action est un {@code int} : le type de l'action est stocké dans l'octet de poids fort, et son argument
+ * (identifiant de carte ou indice de tuile) dans les 24 bits de poids faible. Les joueurs automatiques peuvent
+ * ainsi énumérer et appliquer les actions sans construire ni analyser de chaînes de caractères. Les méthodes
+ * {@link #versChoix(int)} et {@link #depuisChoix(String)} font la conversion avec les choix textuels
+ * ({@code ""}, {@code "Ferraille"}, {@code "Gare"}, {@code "TUILE:12"}, {@code "ACHAT:Gare"}...).
+ */
+public final class Action {
+    public static final int TYPE_PASSER = 0;
+    public static final int TYPE_RECYCLER_FERRAILLE = 1;
+    public static final int TYPE_JOUER = 2;
+    public static final int TYPE_POSER_RAIL = 3;
+    public static final int TYPE_ACHETER = 4;
+
+    /**
+     * Passer (fin du tour)
+     */
+    public static final int PASSER = TYPE_PASSER << 24;
+    /**
+     * Recycler la ferraille de la main (fin du tour)
+     */
+    public static final int RECYCLER_FERRAILLE = TYPE_RECYCLER_FERRAILLE << 24;
+
+    private static final int MASQUE_ARGUMENT = (1 << 24) - 1;
+
+    private Action() {
+    }
+
+    /**
+     * @return l'action « jouer la carte d'identifiant {@code identifiantCarte} de la main »
+     */
+    public static int jouer(int identifiantCarte) {
+        return TYPE_JOUER << 24 | identifiantCarte;
+    }
+
+    /**
+     * @return l'action « poser un rail sur la tuile d'indice {@code indiceTuile} »
+     */
+    public static int poserRail(int indiceTuile) {
+        return TYPE_POSER_RAIL << 24 | indiceTuile;
+    }
+
+    /**
+     * @return l'action « acheter la carte d'identifiant {@code identifiantCarte} dans la réserve »
+     */
+    public static int acheter(int identifiantCarte) {
+        return TYPE_ACHETER << 24 | identifiantCarte;
+    }
+
+    public static int getType(int action) {
+        return action >>> 24;
+    }
+
+    /**
+     * @return l'argument de l'action (identifiant de carte ou indice de tuile)
+     */
+    public static int getArgument(int action) {
+        return action & MASQUE_ARGUMENT;
+    }
+
+    /**
+     * @return le choix textuel correspondant à l'action
+     */
+    public static String versChoix(int action) {
+        return switch (getType(action)) {
+            case TYPE_PASSER -> "";
+            case TYPE_RECYCLER_FERRAILLE -> "Ferraille";
+            case TYPE_JOUER -> FabriqueListeDeCartes.getNomCarte(getArgument(action));
+            case TYPE_POSER_RAIL -> "TUILE:" + getArgument(action);
+            case TYPE_ACHETER -> "ACHAT:" + FabriqueListeDeCartes.getNomCarte(getArgument(action));
+            default -> throw new IllegalArgumentException("Action invalide : " + action);
+        };
+    }
+
+    /**
+     * @return l'action correspondant au choix textuel {@code choix}
+     * @throws IllegalArgumentException si le choix ne correspond à aucune action
+     */
+    public static int depuisChoix(String choix) {
+        if (choix.isEmpty()) {
+            return PASSER;
+        }
+        if (choix.equals("Ferraille")) {
+            return RECYCLER_FERRAILLE;
+        }
+        if (choix.startsWith("TUILE:")) {
+            return poserRail(Integer.parseInt(choix.substring("TUILE:".length())));
+        }
+        if (choix.startsWith("ACHAT:")) {
+            return acheter(identifiant(choix.substring("ACHAT:".length())));
+        }
+        return jouer(identifiant(choix));
+    }
+
+    private static int identifiant(String nomCarte) {
+        int identifiant = FabriqueListeDeCartes.getIdentifiant(nomCarte);
+        if (identifiant < 0) {
+            throw new IllegalArgumentException("Carte inconnue : " + nomCarte);
+        }
+        return identifiant;
+    }
+}
@@ -3,20 +3,27 @@ package fr.umontpellier.iut.trains;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.SplittableRandom;
 
 import fr.umontpellier.iut.trains.cartes.FabriqueListeDeCartes;
+import fr.umontpellier.iut.trains.cartes.ListeDeCartes;
 import fr.umontpellier.iut.trains.plateau.Plateau;
 
 public class AppTrains {
     public static void main(String[] args) {
         String[] nomsJoueurs = { "Guybrush", "Largo"};
 
+        // Graine de la partie (passée en argument pour rejouer une partie à l'identique)
+        long graine = args.length > 0 ? Long.parseLong(args[0]) : new SplittableRandom().nextLong();
+        System.out.println("Graine de la partie : " + graine);
+
         // Tirer aléatoirement 8 cartes préparation
         List<String> cartesPreparation = new ArrayList<>(FabriqueListeDeCartes.getNomsCartesPreparation());
-        Collections.shuffle(cartesPreparation);
+        Collections.sort(cartesPreparation);
+        ListeDeCartes.melanger(cartesPreparation, new SplittableRandom(graine));
         String[] nomsCartes = cartesPreparation.subList(0, 8).toArray(new String[0]);
 
-        Jeu jeu = new Jeu(nomsJoueurs, nomsCartes, Plateau.OSAKA);
+        Jeu jeu = new Jeu(nomsJoueurs, nomsCartes, Plateau.OSAKA, graine);
         jeu.run();
     }
 }
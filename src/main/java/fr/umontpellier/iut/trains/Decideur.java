@@ -0,0 +1,21 @@
+package fr.umontpellier.iut.trains;
+
+import java.util.List;
+
+/**
+ * Fournisseur de décisions pour un joueur (joueur automatique).
+ * <p>
+ * Lorsqu'un joueur a un décideur, {@link Joueur#choisir} lui demande directement son choix au lieu de lire
+ * les entrées du jeu.
+ */
+@FunctionalInterface
+public interface Decideur {
+    /**
+     * @param joueur      le joueur qui doit faire un choix
+     * @param instruction l'instruction associée au choix
+     * @param choix       la liste des choix valides (valeurs des choix et des boutons, et la chaîne vide
+     *                    si le joueur peut passer). La liste est non vide.
+     * @return un élément de {@code choix}
+     */
+    String choisir(Joueur joueur, String instruction, List<String> choix);
+}
@@ -0,0 +1,18 @@
+package fr.umontpellier.iut.trains;
+
+/**
+ * Décideur qui choisit directement les actions de la boucle principale du tour sous forme codée
+ * (voir {@link Action}), sans passer par les choix textuels.
+ * <p>
+ * Les autres choix (effets des cartes, positions de départ...) sont toujours demandés par
+ * {@link Decideur#choisir}.
+ */
+public interface DecideurActions extends Decideur {
+    /**
+     * @param joueur  le joueur qui doit choisir une action
+     * @param actions les actions possibles (la liste est non vide et contient toujours {@link Action#PASSER}).
+     *                La liste est réutilisée par le joueur : elle ne doit pas être conservée.
+     * @return un élément de {@code actions}
+     */
+    int choisirAction(Joueur joueur, ListeActions actions);
+}
@@ -0,0 +1,100 @@
+package fr.umontpellier.iut.trains;
+
+import fr.umontpellier.iut.trains.cartes.Carte;
+import fr.umontpellier.iut.trains.plateau.Plateau;
+
+/**
+ * Événement de la partie, conservé dans l'historique du jeu (voir {@link HistoriqueEvenements}).
+ * <p>
+ * Un événement ne contient que des références et des entiers : le texte HTML affiché par l'interface
+ * graphique n'est construit que lorsqu'il est demandé (voir {@link #versHtml()}). Selon le type, certains
+ * champs ne sont pas utilisés ({@code null} ou {@code 0}).
+ *
+ * @param type   le type d'événement
+ * @param joueur le joueur concerné (débuts de tour et scores)
+ * @param carte  la carte concernée
+ * @param valeur un entier dont le sens dépend du type (indice de tuile, nombre de cartes, score)
+ * @param texte  un texte libre (carte annoncée ou message quelconque)
+ */
+public record Evenement(
+        Type type,
+        Joueur joueur,
+        Carte carte,
+        int valeur,
+        String texte) {
+
+    public enum Type {
+        DEBUT_TOUR, FIN_PARTIE, SCORE, JOUE, ACHETE, RECYCLE, RAIL, GARE, ANNONCE, REVELE, DEVOILE, MESSAGE
+    }
+
+    public static Evenement debutTour(Joueur joueur) {
+        return new Evenement(Type.DEBUT_TOUR, joueur, null, 0, null);
+    }
+
+    public static Evenement finPartie() {
+        return new Evenement(Type.FIN_PARTIE, null, null, 0, null);
+    }
+
+    public static Evenement score(Joueur joueur, int score) {
+        return new Evenement(Type.SCORE, joueur, null, score, null);
+    }
+
+    public static Evenement joue(Carte carte) {
+        return new Evenement(Type.JOUE, null, carte, 0, null);
+    }
+
+    public static Evenement achete(Carte carte) {
+        return new Evenement(Type.ACHETE, null, carte, 0, null);
+    }
+
+    public static Evenement recycle(Carte carte, int nombre) {
+        return new Evenement(Type.RECYCLE, null, carte, nombre, null);
+    }
+
+    public static Evenement rail(int indiceTuile) {
+        return new Evenement(Type.RAIL, null, null, indiceTuile, null);
+    }
+
+    public static Evenement gare(int indiceTuile) {
+        return new Evenement(Type.GARE, null, null, indiceTuile, null);
+    }
+
+    public static Evenement annonce(String nomCarte) {
+        return new Evenement(Type.ANNONCE, null, null, 0, nomCarte);
+    }
+
+    public static Evenement revele(Carte carte) {
+        return new Evenement(Type.REVELE, null, carte, 0, null);
+    }
+
+    public static Evenement devoile(Carte carte) {
+        return new Evenement(Type.DEVOILE, null, carte, 0, null);
+    }
+
+    /**
+     * @param message un message déjà mis en forme (HTML)
+     */
+    public static Evenement message(String message) {
+        return new Evenement(Type.MESSAGE, null, null, 0, message);
+    }
+
+    /**
+     * @return le message HTML affiché par l'interface graphique pour cet événement
+     */
+    public String versHtml() {
+        return switch (type) {
+            case DEBUT_TOUR -> "<div class=\"tour\">Tour de " + joueur.toLog() + "</div>";
+            case FIN_PARTIE -> "<div class=\"tour\">Fin de la partie</div>";
+            case SCORE -> String.format("%s : %d points", joueur.toLog(), valeur);
+            case JOUE -> String.format("Joue %s", carte.toLog());
+            case ACHETE -> String.format("Achète %s", carte.toLog());
+            case RECYCLE -> String.format("Recycle %d %s", valeur, carte.toLog());
+            case RAIL -> String.format("Construit un rail en %s", Plateau.getCoordonnees(valeur));
+            case GARE -> String.format("... place une gare en %s", Plateau.getCoordonnees(valeur));
+            case ANNONCE -> String.format("... annonce %s", texte);
+            case REVELE -> String.format("... révèle %s", carte.toLog());
+            case DEVOILE -> String.format("... dévoile %s", carte.toLog());
+            case MESSAGE -> texte;
+        };
+    }
+}
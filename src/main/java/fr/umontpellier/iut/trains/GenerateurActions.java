@@ -0,0 +1,89 @@
+package fr.umontpellier.iut.trains;
+
+import java.util.Arrays;
+
+import fr.umontpellier.iut.trains.cartes.Carte;
+import fr.umontpellier.iut.trains.cartes.FabriqueListeDeCartes;
+import fr.umontpellier.iut.trains.cartes.ListeDeCartes;
+import fr.umontpellier.iut.trains.plateau.Frontiere;
+
+/**
+ * Générateur incrémental des actions possibles d'un joueur (voir {@link Joueur#remplirActionsPossibles}).
+ * <p>
+ * Les parties coûteuses sont conservées d'un choix à l'autre :
+ * <ul>
+ * <li>les cartes jouables de la main ne sont recalculées que si la main a changé ;</li>
+ * <li>les tuiles accessibles sont celles de la {@link Frontiere} du joueur, tenue à jour à chaque rail posé ;
+ * à chaque choix, seul le surcoût de ces tuiles (lu dans la table du joueur, voir
+ * {@link Joueur#getSurcout(int)}) est comparé à l'argent du joueur.</li>
+ * </ul>
+ * Les cartes de la réserve (quelques piles) sont examinées à chaque choix. On suppose, comme pour toutes les
+ * cartes actuelles, que {@link Carte#peutEtreJouee(Joueur)} ne dépend que de la carte.
+ */
+class GenerateurActions {
+    private final Joueur joueur;
+
+    private int nbModificationsMain = -1;
+    private final ListeActions cartesJouables = new ListeActions();
+    private boolean ferrailleEnMain;
+    /**
+     * Identifiants des cartes de la main déjà ajoutées aux cartes jouables (tableau réutilisé)
+     */
+    private final boolean[] dejaAjoutees = new boolean[FabriqueListeDeCartes.getNbCartes()];
+
+    GenerateurActions(Joueur joueur) {
+        this.joueur = joueur;
+    }
+
+    void remplir(ListeActions actions, boolean peutRecycler) {
+        actions.vider();
+        actions.ajouter(Action.PASSER);
+
+        ListeDeCartes main = joueur.getMain();
+        if (main.getNbModifications() != nbModificationsMain) {
+            nbModificationsMain = main.getNbModifications();
+            calculerCartesJouables(main);
+        }
+        // Si le joueur peut recycler de la ferraille
+        if (peutRecycler && ferrailleEnMain) {
+            actions.ajouter(Action.RECYCLER_FERRAILLE);
+        }
+        // Cartes jouables en main (une action par nom de carte)
+        for (int i = 0; i < cartesJouables.size(); i++) {
+            actions.ajouter(cartesJouables.get(i));
+        }
+
+        // Si le joueur peut poser des rails : tuiles de la frontière dont il peut payer le surcoût
+        if (joueur.getPointsRails() > 0 && joueur.getNbJetonsRails() > 0) {
+            Frontiere frontiere = joueur.getFrontiere();
+            int argent = joueur.getArgent();
+            for (int k = 0; k < frontiere.size(); k++) {
+                int i = frontiere.get(k);
+                if (argent >= joueur.getSurcout(i)) {
+                    actions.ajouter(Action.poserRail(i));
+                }
+            }
+        }
+
+        // Cartes que le joueur peut acheter
+        for (ListeDeCartes pile : joueur.getJeu().getReserve().values()) {
+            if (!pile.isEmpty() && pile.get(0).peutEtreAchetee(joueur)) {
+                actions.ajouter(Action.acheter(pile.get(0).getIdentifiant()));
+            }
+        }
+    }
+
+    private void calculerCartesJouables(ListeDeCartes main) {
+        cartesJouables.vider();
+        ferrailleEnMain = main.count("Ferraille") > 0;
+        Arrays.fill(dejaAjoutees, false);
+        for (Carte carte : main) {
+            int identifiant = carte.getIdentifiant();
+            // une carte sans identifiant (non enregistrée dans la fabrique) ne peut pas être désignée par une action
+            if (identifiant >= 0 && !dejaAjoutees[identifiant] && carte.peutEtreJouee(joueur)) {
+                dejaAjoutees[identifiant] = true;
+                cartesJouables.ajouter(Action.jouer(identifiant));
+            }
+        }
+    }
+}
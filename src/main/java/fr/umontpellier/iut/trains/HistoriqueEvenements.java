@@ -0,0 +1,156 @@
+package fr.umontpellier.iut.trains;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Historique borné des événements de la partie.
+ * <p>
+ * Les événements sont rangés dans un tableau circulaire : au-delà de la capacité, chaque nouvel événement
+ * remplace le plus ancien. Le tableau n'est agrandi qu'au fur et à mesure des ajouts (la capacité peut donc
+ * être très grande sans coût). Le rendu HTML de l'historique ({@link #versHtml()}) n'est calculé que s'il est
+ * demandé, et il est conservé tant qu'aucun événement n'est ajouté.
+ */
+public class HistoriqueEvenements {
+    private static final Evenement[] VIDE = {};
+
+    /**
+     * Tableau circulaire des événements (sa longueur ne dépasse jamais la capacité)
+     */
+    private Evenement[] evenements;
+    /**
+     * Position dans {@link #evenements} de l'événement le plus ancien
+     */
+    private int debut;
+    private int taille;
+    private int capacite;
+    /**
+     * Nombre d'événements ajoutés depuis la création de l'historique (y compris ceux qui ont été oubliés)
+     */
+    private long nbEvenements;
+    /**
+     * Dernier rendu HTML calculé, valide si {@link #nbEvenementsHtml} est égal à {@link #nbEvenements}
+     */
+    private List<String> html;
+    private long nbEvenementsHtml = -1;
+
+    /**
+     * @param capacite le nombre maximal d'événements conservés ({@code 0} pour n'en conserver aucun)
+     */
+    public HistoriqueEvenements(int capacite) {
+        this.evenements = VIDE;
+        this.capacite = Math.max(capacite, 0);
+    }
+
+    /**
+     * Constructeur par recopie (les événements, non modifiables, sont partagés)
+     */
+    public HistoriqueEvenements(HistoriqueEvenements autre) {
+        this.evenements = autre.toArray();
+        this.taille = evenements.length;
+        this.capacite = autre.capacite;
+        this.nbEvenements = autre.nbEvenements;
+    }
+
+    public int getCapacite() {
+        return capacite;
+    }
+
+    /**
+     * Fixe le nombre maximal d'événements conservés (seuls les plus récents sont gardés)
+     */
+    public void setCapacite(int capacite) {
+        this.capacite = Math.max(capacite, 0);
+        // le tableau ne doit pas dépasser la capacité : un historique plein remplace alors ses événements
+        // en faisant le tour du tableau
+        if (evenements.length > this.capacite) {
+            Evenement[] tous = toArray();
+            int nbConserves = Math.min(taille, this.capacite);
+            evenements = Arrays.copyOfRange(tous, taille - nbConserves, taille);
+            debut = 0;
+            if (taille != nbConserves) {
+                taille = nbConserves;
+                nbEvenementsHtml = -1;
+            }
+        }
+    }
+
+    /**
+     * @return vrai si les événements ajoutés sont conservés (capacité non nulle)
+     */
+    public boolean estActif() {
+        return capacite > 0;
+    }
+
+    public void ajouter(Evenement evenement) {
+        if (capacite == 0) {
+            return;
+        }
+        nbEvenements++;
+        if (taille == capacite) {
+            evenements[debut] = evenement;
+            debut = debut + 1 == evenements.length ? 0 : debut + 1;
+            return;
+        }
+        if (taille == evenements.length) {
+            Evenement[] tous = toArray();
+            evenements = Arrays.copyOf(tous, (int) Math.min(capacite, Math.max(16, 2L * taille)));
+            debut = 0;
+        }
+        evenements[(debut + taille) % evenements.length] = evenement;
+        taille++;
+    }
+
+    /**
+     * @return le nombre d'événements conservés
+     */
+    public int size() {
+        return taille;
+    }
+
+    /**
+     * @return le {@code i}-ème événement conservé (le plus ancien a l'indice 0)
+     */
+    public Evenement get(int i) {
+        if (i < 0 || i >= taille) {
+            throw new IndexOutOfBoundsException("Événement " + i + " hors de l'historique de taille " + taille);
+        }
+        return evenements[(debut + i) % evenements.length];
+    }
+
+    /**
+     * @return le nombre d'événements ajoutés depuis la création de l'historique, y compris ceux qui ont été
+     * oubliés (le numéro du prochain événement ajouté)
+     */
+    public long getNbEvenements() {
+        return nbEvenements;
+    }
+
+    /**
+     * @return les événements conservés, du plus ancien au plus récent
+     */
+    public Evenement[] toArray() {
+        Evenement[] tous = new Evenement[taille];
+        for (int i = 0; i < taille; i++) {
+            tous[i] = get(i);
+        }
+        return tous;
+    }
+
+    /**
+     * @return les messages HTML des événements conservés, du plus ancien au plus récent (liste non modifiable)
+     */
+    public List<String> versHtml() {
+        if (nbEvenementsHtml != nbEvenements) {
+            List<String> messages = new ArrayList<>(taille);
+            for (int i = 0; i < taille; i++) {
+                messages.add(get(i).versHtml());
+            }
+            html = Collections.unmodifiableList(messages);
+            nbEvenementsHtml = nbEvenements;
+        }
+        return html;
+    }
+}
@@ -1,26 +1,36 @@
 package fr.umontpellier.iut.trains;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.SplittableRandom;
 import java.util.StringJoiner;
 import java.util.stream.Collectors;
 
+import com.google.gson.stream.JsonWriter;
+
 import fr.umontpellier.iut.graphes.Graphe;
 import fr.umontpellier.iut.graphes.Sommet;
 import fr.umontpellier.iut.trains.cartes.Carte;
 import fr.umontpellier.iut.trains.cartes.FabriqueListeDeCartes;
 import fr.umontpellier.iut.trains.cartes.ListeDeCartes;
+import fr.umontpellier.iut.trains.cartes.PileReserve;
+import fr.umontpellier.iut.trains.plateau.Frontiere;
 import fr.umontpellier.iut.trains.plateau.Plateau;
 import fr.umontpellier.iut.trains.plateau.Tuile;
 
 public class Jeu implements Runnable {
+    /**
+     * Nombre maximal par défaut de messages conservés dans le log
+     */
+    public static final int TAILLE_MAX_LOG = 200;
+
     /**
      * Liste des joueurs
      */
@@ -54,21 +64,52 @@ public class Jeu implements Runnable {
      */
     private int nbJetonsGare;
     /**
-     * Scanner pour lire les entrées clavier
+     * Scanner pour lire les entrées clavier (créé à la première lecture)
      */
     private Scanner scanner;
     /**
-     * Messages d'information du jeu (affichés dans l'interface graphique)
+     * Événements de la partie (affichés dans l'interface graphique). Seuls les {@link #TAILLE_MAX_LOG}
+     * derniers sont conservés par défaut (voir {@link #setTailleMaxLog(int)}).
+     */
+    private final HistoriqueEvenements historique;
+    /**
+     * Nombre de tours de jeu terminés (hors choix des positions de départ)
+     */
+    private int nbTours;
+    /**
+     * Graine de la partie : deux parties de même graine (et mêmes choix des joueurs) sont identiques
+     */
+    private final long graine;
+    /**
+     * Générateur pseudo-aléatoire de la partie, dont sont dérivés les générateurs de chaque composant
      */
-    private final List<String> log;
+    private final SplittableRandom random;
+    /**
+     * Voisinages des tuiles sous forme d'indices (calculés à la première copie de la partie et partagés
+     * entre les copies : le plateau ne change pas de forme pendant une partie)
+     */
+    private int[][] indicesVoisines;
+    /**
+     * Journal des modifications de la partie ({@code null} si les modifications ne sont pas enregistrées)
+     */
+    private JournalActions journal;
+    /**
+     * Compteur incrémenté à chaque modification du plateau (rail ou gare posé ou retiré)
+     */
+    private int versionPlateau;
+    /**
+     * Si vrai, les scores tenus à jour sont comparés à un recalcul complet à chaque appel de
+     * {@link Joueur#getScoreTotal()}
+     */
+    private boolean verificationScores;
     /**
      * Instruction affichée au joueur courant
      */
-    private String instruction;
+    private String instruction = "";
     /**
      * Liste des boutons à afficher dans l'interface
      */
-    private List<Bouton> boutons;
+    private List<Bouton> boutons = List.of();
 
     /**
      * Constructeur de la classe Jeu
@@ -80,14 +121,38 @@ public class Jeu implements Runnable {
      *                          {@code Plateau.TOKYO})
      */
     public Jeu(String[] nomsJoueurs, String[] cartesPreparation, Plateau plateau) {
+        this(nomsJoueurs, cartesPreparation, plateau, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Construit une partie dont tous les tirages aléatoires sont déterminés par {@code graine}
+     */
+    public Jeu(String[] nomsJoueurs, String[] cartesPreparation, Plateau plateau, long graine) {
+        this(nomsJoueurs, cartesPreparation, plateau.getNomVille(), plateau.makeTuiles(), graine);
+    }
+
+    /**
+     * Construit une partie sur un plateau quelconque (par exemple produit par
+     * {@link fr.umontpellier.iut.trains.plateau.GenerateurPlateau})
+     *
+     * @param nomVille nom du plateau
+     * @param tuiles tuiles du plateau, déjà reliées à leurs voisines
+     */
+    public Jeu(String[] nomsJoueurs, String[] cartesPreparation, String nomVille, List<Tuile> tuiles) {
+        this(nomsJoueurs, cartesPreparation, nomVille, tuiles, new SplittableRandom().nextLong());
+    }
+
+    public Jeu(String[] nomsJoueurs, String[] cartesPreparation, String nomVille, List<Tuile> tuiles, long graine) {
+        this.graine = graine;
+        this.random = new SplittableRandom(graine);
+
         // initialisation des entrées/sorties
-        scanner = new Scanner(System.in);
         // inputQueue = new LinkedBlockingQueue<>();
-        log = new ArrayList<>();
+        historique = new HistoriqueEvenements(TAILLE_MAX_LOG);
 
         // préparation du plateau
-        this.nomVille = plateau.getNomVille();
-        this.tuiles = plateau.makeTuiles();
+        this.nomVille = nomVille;
+        this.tuiles = tuiles;
 
         this.nbJetonsGare = 30;
         this.cartesEcartees = new ListeDeCartes();
@@ -98,7 +163,7 @@ public class Jeu implements Runnable {
         // ajouter les cartes communes et les cartes de préparation
         creerCartesCommunes();
         for (String nomCarte : cartesPreparation) {
-            reserve.put(nomCarte, FabriqueListeDeCartes.creerListeDeCartes(nomCarte, 10));
+            reserve.put(nomCarte, creerPileReserve(nomCarte, 10));
         }
 
         // trier les noms de cartes pour l'affichage
@@ -110,13 +175,149 @@ public class Jeu implements Runnable {
         // création des joueurs
         this.joueurs = new ArrayList<>();
         ArrayList<CouleurJoueur> couleurs = new ArrayList<>(List.of(CouleurJoueur.values()));
-        Collections.shuffle(couleurs);
+        ListeDeCartes.melanger(couleurs, creerGenerateur());
         for (String nomJoueur : nomsJoueurs) {
             this.joueurs.add(new Joueur(this, nomJoueur, couleurs.remove(0)));
         }
         this.joueurCourant = joueurs.get(0);
     }
 
+    /**
+     * Constructeur par recopie : construit une copie indépendante de la partie {@code autre}.
+     * <p>
+     * Les cartes (non modifiables) sont partagées ; les piles de cartes, les tuiles (rails et gares),
+     * les joueurs et les compteurs sont copiés. La copie a ses propres générateurs pseudo-aléatoires,
+     * dérivés de {@code graine}. Les décideurs des joueurs sont partagés avec la partie d'origine.
+     *
+     * @param autre  la partie à copier
+     * @param graine la graine des générateurs de la copie
+     */
+    protected Jeu(Jeu autre, long graine) {
+        this.graine = graine;
+        this.random = new SplittableRandom(graine);
+        this.historique = new HistoriqueEvenements(autre.historique);
+        this.nbTours = autre.nbTours;
+        this.versionPlateau = autre.versionPlateau;
+        this.verificationScores = autre.verificationScores;
+        this.instruction = autre.instruction;
+        this.boutons = autre.boutons;
+        this.nomVille = autre.nomVille;
+        this.nbJetonsGare = autre.nbJetonsGare;
+        this.cartesEcartees = new ListeDeCartes(autre.cartesEcartees);
+
+        this.reserve = new HashMap<>();
+        for (Map.Entry<String, ListeDeCartes> pile : autre.reserve.entrySet()) {
+            reserve.put(pile.getKey(), pile.getValue().copier());
+        }
+
+        this.joueurs = new ArrayList<>(autre.joueurs.size());
+        for (Joueur joueur : autre.joueurs) {
+            joueurs.add(new Joueur(joueur, this));
+        }
+        this.joueurCourant = joueurs.get(autre.joueurs.indexOf(autre.joueurCourant));
+
+        if (autre.indicesVoisines == null) {
+            autre.indicesVoisines = Tuile.calculerIndicesVoisines(autre.tuiles);
+        }
+        this.indicesVoisines = autre.indicesVoisines;
+        this.tuiles = Tuile.copierTuiles(autre.tuiles, indicesVoisines, joueurs);
+        for (int i = 0; i < joueurs.size(); i++) {
+            joueurs.get(i).copierDonneesTuiles(autre.joueurs.get(i));
+        }
+    }
+
+    /**
+     * @return une copie indépendante de la partie (voir {@link #Jeu(Jeu, long)}), dont la graine est tirée
+     * du générateur de la partie
+     */
+    public Jeu copier() {
+        return new Jeu(this, tirerGraine());
+    }
+
+    /**
+     * @return une nouvelle graine tirée du générateur de la partie
+     */
+    protected long tirerGraine() {
+        return random.nextLong();
+    }
+
+    /**
+     * @return un compteur qui change à chaque modification du plateau (permet de savoir si des informations
+     * calculées à partir du plateau sont encore valides)
+     */
+    public int getVersionPlateau() {
+        return versionPlateau;
+    }
+
+    /**
+     * Signale la modification d'une tuile (appelée lorsqu'un rail ou une gare est posé ou retiré) : la version
+     * du plateau change et le surcoût de la tuile est mis à jour pour chaque joueur
+     */
+    public void signalerModificationTuile(Tuile tuile) {
+        versionPlateau++;
+        for (Joueur joueur : joueurs) {
+            joueur.mettreAJourSurcout(tuile);
+        }
+    }
+
+    public boolean estVerificationScores() {
+        return verificationScores;
+    }
+
+    /**
+     * Active ou désactive la vérification des scores : lorsqu'elle est active, {@link Joueur#getScoreTotal()}
+     * recalcule entièrement chaque score et lève une {@link IllegalStateException} s'il diffère du score tenu
+     * à jour
+     */
+    public void setVerificationScores(boolean verificationScores) {
+        this.verificationScores = verificationScores;
+    }
+
+    public JournalActions getJournal() {
+        return journal;
+    }
+
+    /**
+     * Active l'enregistrement des modifications de la partie dans un nouveau journal, qui permet ensuite
+     * d'annuler les coups joués (voir {@link JournalActions})
+     *
+     * @return le journal
+     */
+    public JournalActions activerJournal() {
+        setJournal(new JournalActions());
+        return journal;
+    }
+
+    /**
+     * Arrête l'enregistrement des modifications de la partie
+     */
+    public void desactiverJournal() {
+        setJournal(null);
+    }
+
+    private void setJournal(JournalActions journal) {
+        this.journal = journal;
+        for (ListeDeCartes pile : reserve.values()) {
+            pile.setJournal(journal);
+        }
+        cartesEcartees.setJournal(journal);
+        for (Joueur joueur : joueurs) {
+            joueur.setJournal(journal);
+        }
+    }
+
+    public long getGraine() {
+        return graine;
+    }
+
+    /**
+     * @return un nouveau générateur pseudo-aléatoire indépendant, dérivé du générateur de la partie
+     * (chaque composant qui a besoin de hasard utilise son propre générateur)
+     */
+    public SplittableRandom creerGenerateur() {
+        return random.split();
+    }
+
     public Map<String, ListeDeCartes> getReserve() {
         return reserve;
     }
@@ -164,14 +365,29 @@ public class Jeu implements Runnable {
      * Construit les piles de réserve pour les cartes communes
      */
     private void creerCartesCommunes() {
-        reserve.put("Train express", FabriqueListeDeCartes.creerListeDeCartes("Train express", 20));
-        reserve.put("Train direct", FabriqueListeDeCartes.creerListeDeCartes("Train direct", 10));
-        reserve.put("Pose de rails", FabriqueListeDeCartes.creerListeDeCartes("Pose de rails", 20));
-        reserve.put("Gare", FabriqueListeDeCartes.creerListeDeCartes("Gare", 20));
-        reserve.put("Appartement", FabriqueListeDeCartes.creerListeDeCartes("Appartement", 10));
-        reserve.put("Immeuble", FabriqueListeDeCartes.creerListeDeCartes("Immeuble", 10));
-        reserve.put("Gratte-ciel", FabriqueListeDeCartes.creerListeDeCartes("Gratte-ciel", 10));
-        reserve.put("Ferraille", FabriqueListeDeCartes.creerListeDeCartes("Ferraille", 70));
+        reserve.put("Train express", creerPileReserve("Train express", 20));
+        reserve.put("Train direct", creerPileReserve("Train direct", 10));
+        reserve.put("Pose de rails", creerPileReserve("Pose de rails", 20));
+        reserve.put("Gare", creerPileReserve("Gare", 20));
+        reserve.put("Appartement", creerPileReserve("Appartement", 10));
+        reserve.put("Immeuble", creerPileReserve("Immeuble", 10));
+        reserve.put("Gratte-ciel", creerPileReserve("Gratte-ciel", 10));
+        reserve.put("Ferraille", creerPileReserve("Ferraille", 70));
+    }
+
+    /**
+     * Construit une pile de réserve. Par défaut, chaque carte de la pile est une instance distincte ; les
+     * parties destinées aux simulations peuvent redéfinir cette méthode pour utiliser une {@link PileReserve}
+     * (une seule instance et un compteur).
+     * <p>
+     * Cette méthode est appelée par le constructeur : une redéfinition ne doit pas dépendre des attributs
+     * de la sous-classe.
+     *
+     * @param nomCarte le nom des cartes de la pile
+     * @param nombre   le nombre de cartes de la pile
+     */
+    protected ListeDeCartes creerPileReserve(String nomCarte, int nombre) {
+        return FabriqueListeDeCartes.creerListeDeCartes(nomCarte, nombre);
     }
 
     /**
@@ -200,6 +416,11 @@ public class Jeu implements Runnable {
     public void passeAuJoueurSuivant() {
         int i = joueurs.indexOf(joueurCourant);
         i = (i + 1) % joueurs.size();
+        if (journal != null) {
+            Joueur avant = joueurCourant;
+            Joueur apres = joueurs.get(i);
+            journal.enregistrer(() -> joueurCourant = avant, () -> joueurCourant = apres);
+        }
         joueurCourant = joueurs.get(i);
     }
 
@@ -236,31 +457,73 @@ public class Jeu implements Runnable {
      * soit terminée
      */
     public void run() {
-        // initialisation (chaque joueur choisit une position de départ)
+        choisirPositionsDepart();
+        jouerTours();
+    }
+
+    /**
+     * Initialisation de la partie : chaque joueur choisit une position de départ
+     */
+    public void choisirPositionsDepart() {
         for (int i = 0; i < joueurs.size(); i++) {
             joueurCourant.choisirPositionDepart();
             passeAuJoueurSuivant();
         }
+    }
 
+    /**
+     * Exécute les tours des joueurs à partir de l'état courant jusqu'à ce que la partie soit terminée
+     * (permet notamment de terminer une copie de partie)
+     */
+    public void jouerTours() {
         // tours des joueurs jusqu'à une condition de fin
         while (!estFini()) {
             joueurCourant.jouerTour();
             passeAuJoueurSuivant();
+            nbTours++;
+            if (journal != null) {
+                journal.enregistrer(() -> nbTours--, () -> nbTours++);
+            }
         }
 
         // fin de la partie
-        log("<div class=\"tour\">Fin de la partie</div>");
+        log(Evenement.finPartie());
         for (Joueur j : joueurs) {
-            log(String.format("%s : %d points", j.toLog(), j.getScoreTotal()));
+            log(Evenement.score(j, j.getScoreTotal()));
         }
         prompt("Fin de la partie.", null, true);
     }
 
     /**
-     * Ajoute un message au log du jeu
+     * Ajoute un message (déjà mis en forme) au log du jeu
      */
     public void log(String message) {
-        log.add(message);
+        log(Evenement.message(message));
+    }
+
+    /**
+     * Ajoute un événement à l'historique du jeu
+     */
+    public void log(Evenement evenement) {
+        historique.ajouter(evenement);
+    }
+
+    public HistoriqueEvenements getHistorique() {
+        return historique;
+    }
+
+    /**
+     * Fixe le nombre maximal de messages conservés dans le log ({@code 0} pour désactiver le log)
+     */
+    public void setTailleMaxLog(int tailleMaxLog) {
+        historique.setCapacite(tailleMaxLog);
+    }
+
+    /**
+     * @return le nombre de tours de jeu terminés (les choix des positions de départ ne sont pas comptés)
+     */
+    public int getNbTours() {
+        return nbTours;
     }
 
     /**
@@ -313,16 +576,7 @@ public class Jeu implements Runnable {
     public Map<String, Object> dataMap() {
         // liste des données des piles de réserve
         List<Map<String, Object>> listeReserve = new ArrayList<>();
-        List<String> nomsCartesEnReserve = reserve.keySet().stream().sorted().collect(Collectors.toList());
-        // piles de cartes communes en premier
-        for (String nomCarte : FabriqueListeDeCartes.getNomsCartesCommunes()) {
-            if (nomsCartesEnReserve.contains(nomCarte)) {
-                listeReserve.add(Map.of("carte", nomCarte, "nombre", reserve.get(nomCarte).size()));
-                nomsCartesEnReserve.remove(nomCarte);
-            }
-        }
-        // autres piles de réserve après, par ordre alphabétique
-        for (String nomCarte : nomsCartesEnReserve) {
+        for (String nomCarte : getNomsPilesReserve()) {
             listeReserve.add(Map.of("carte", nomCarte, "nombre", reserve.get(nomCarte).size()));
         }
 
@@ -333,10 +587,64 @@ public class Jeu implements Runnable {
                 Map.entry("boutons", boutons),
                 Map.entry("ville", nomVille),
                 Map.entry("tuiles", tuiles.stream().map(Tuile::dataMap).toList()),
-                Map.entry("log", log),
+                Map.entry("log", historique.versHtml()),
                 Map.entry("reserve", listeReserve));
     }
 
+    /**
+     * Écrit la représentation JSON du jeu (la même que celle de {@link #dataMap()}) directement dans
+     * {@code json}, sans construire de dictionnaire intermédiaire
+     */
+    public void ecrireJson(JsonWriter json) throws IOException {
+        json.beginObject();
+        json.name("joueurs").beginArray();
+        for (Joueur joueur : joueurs) {
+            joueur.ecrireJson(json);
+        }
+        json.endArray();
+        json.name("joueurCourant").value(joueurs.indexOf(joueurCourant));
+        json.name("instruction").value(instruction);
+        json.name("boutons").beginArray();
+        for (Bouton bouton : boutons) {
+            json.beginObject().name("label").value(bouton.label()).name("valeur").value(bouton.valeur()).endObject();
+        }
+        json.endArray();
+        json.name("ville").value(nomVille);
+        json.name("tuiles").beginArray();
+        for (Tuile tuile : tuiles) {
+            tuile.ecrireJson(json);
+        }
+        json.endArray();
+        json.name("log").beginArray();
+        for (String ligne : historique.versHtml()) {
+            json.value(ligne);
+        }
+        json.endArray();
+        json.name("reserve").beginArray();
+        for (String nomCarte : getNomsPilesReserve()) {
+            json.beginObject().name("carte").value(nomCarte).name("nombre").value(reserve.get(nomCarte).size())
+                    .endObject();
+        }
+        json.endArray();
+        json.endObject();
+    }
+
+    /**
+     * @return les noms des piles de la réserve dans l'ordre d'affichage : piles de cartes communes en premier,
+     * puis les autres piles par ordre alphabétique
+     */
+    private List<String> getNomsPilesReserve() {
+        List<String> noms = new ArrayList<>(reserve.size());
+        List<String> nomsCartesEnReserve = reserve.keySet().stream().sorted().collect(Collectors.toList());
+        for (String nomCarte : FabriqueListeDeCartes.getNomsCartesCommunes()) {
+            if (nomsCartesEnReserve.remove(nomCarte)) {
+                noms.add(nomCarte);
+            }
+        }
+        noms.addAll(nomsCartesEnReserve);
+        return noms;
+    }
+
     /**
      * Lit une ligne de l'entrée standard
      * C'est cette méthode qui doit être appelée à chaque fois qu'on veut lire
@@ -346,6 +654,9 @@ public class Jeu implements Runnable {
      *         file
      */
     public String lireLigne() {
+        if (scanner == null) {
+            scanner = new Scanner(System.in);
+        }
         return scanner.nextLine();
     }
 
@@ -383,14 +694,29 @@ public class Jeu implements Runnable {
     }
 
     public void ajouterGare(int i) {
-        tuiles.get(i).ajouterGare();
+        Tuile tuile = tuiles.get(i);
+        tuile.ajouterGare();
         nbJetonsGare--;
+        signalerModificationTuile(tuile);
+        if (journal != null) {
+            journal.enregistrer(() -> {
+                tuile.retirerGare();
+                nbJetonsGare++;
+                signalerModificationTuile(tuile);
+            }, () -> {
+                tuile.ajouterGare();
+                nbJetonsGare--;
+                signalerModificationTuile(tuile);
+            });
+        }
     }
 
     public Collection<String> getPositionsRailDisponibles(Joueur joueur) {
         Collection<String> positions = new HashSet<>();
-        for (int i = 0; i < tuiles.size(); i++) {
-            if (tuiles.get(i).peutPlacerRail(joueur)) {
+        Frontiere frontiere = joueur.getFrontiere();
+        for (int k = 0; k < frontiere.size(); k++) {
+            int i = frontiere.get(k);
+            if (joueur.getArgent() >= joueur.getSurcout(i)) {
                 positions.add(String.valueOf(i));
             }
         }
@@ -1,41 +1,102 @@
 package fr.umontpellier.iut.trains;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.SplittableRandom;
 import java.util.StringJoiner;
-import java.util.stream.Collectors;
+
+import com.google.gson.stream.JsonWriter;
 
 import fr.umontpellier.iut.trains.cartes.Carte;
 import fr.umontpellier.iut.trains.cartes.EffetTour;
 import fr.umontpellier.iut.trains.cartes.FabriqueListeDeCartes;
 import fr.umontpellier.iut.trains.cartes.ListeDeCartes;
-import fr.umontpellier.iut.trains.cartes.TypeCarte;
-import fr.umontpellier.iut.trains.plateau.Plateau;
+import fr.umontpellier.iut.trains.plateau.Frontiere;
 import fr.umontpellier.iut.trains.plateau.Tuile;
 
 public class Joueur {
+    private static final EffetTour[] EFFETS = EffetTour.values();
+
     private Jeu jeu;
     private String nom;
     private int argent;
     private int pointsRails;
     private int nbJetonsRails;
     private int score;
+    /**
+     * Somme des points de victoire des tuiles sur lesquelles le joueur a un rail (tenue à jour par les tuiles)
+     */
+    private int nbPointsVictoireTuiles;
+    /**
+     * Nombre de tuiles sur lesquelles le joueur a un rail
+     */
+    private int nbTuilesReseau;
     private ListeDeCartes main;
     private ListeDeCartes pioche;
     private ListeDeCartes defausse;
     private ListeDeCartes cartesEnJeu;
     private ListeDeCartes cartesRecues;
-    private List<EffetTour> listeEffets;
+    /**
+     * Nombre d'exemplaires de chaque effet actif pendant le tour, indexé par {@link EffetTour#ordinal()}
+     */
+    private int[] nbEffets;
+    /**
+     * Ensemble des effets actifs pendant le tour (le bit {@code e.ordinal()} vaut 1 si l'effet {@code e} est
+     * actif)
+     */
+    private int masqueEffets;
     private CouleurJoueur couleur;
+    /**
+     * Rang du joueur dans la liste des joueurs de la partie (utilisé pour les masques de joueurs des tuiles)
+     */
+    private int rang;
+    /**
+     * Fournisseur des décisions du joueur ({@code null} pour lire les entrées du jeu)
+     */
+    private Decideur decideur;
+    /**
+     * Générateur pseudo-aléatoire du joueur (mélange de la pioche)
+     */
+    private SplittableRandom random;
+    /**
+     * Vrai tant que le joueur n'a fait aucune action pendant son tour (il peut alors recycler sa ferraille)
+     */
+    private boolean peutRecycler;
+    /**
+     * Liste réutilisée pour les actions possibles de la boucle principale du tour
+     */
+    private final ListeActions actionsPossibles = new ListeActions();
+    private final GenerateurActions generateurActions = new GenerateurActions(this);
+    /**
+     * Tuiles voisines du réseau du joueur (candidates pour la pose d'un rail)
+     */
+    private Frontiere frontiere = new Frontiere();
+    /**
+     * Surcoût de la pose d'un rail par le joueur sur chaque tuile, indexé par indice de tuile. La pose ou le
+     * retrait d'un rail ou d'une gare ne met à jour que la case de la tuile concernée (voir
+     * {@link #mettreAJourSurcout(Tuile)}) ; la table n'est recalculée entièrement que si les effets du joueur
+     * ou la liste des tuiles de la partie ont changé depuis le dernier calcul.
+     */
+    private int[] surcouts = new int[0];
+    /**
+     * Tuiles auxquelles correspond la table des surcoûts ({@code null} si elle doit être recalculée)
+     */
+    private List<Tuile> tuilesSurcouts;
+    private int masqueEffetsSurcouts;
+    private final String instructionTour;
 
     public Joueur(Jeu jeu, String nom, CouleurJoueur couleur) {
         this.jeu = jeu;
         this.nom = nom;
         this.couleur = couleur;
+        this.instructionTour = "Tour de " + nom;
+        rang = jeu.getJoueurs().size();
+        random = jeu.creerGenerateur();
         argent = 0;
         score = 0;
         pointsRails = 0;
@@ -45,7 +106,7 @@ public class Joueur {
         pioche = new ListeDeCartes();
         cartesEnJeu = new ListeDeCartes();
         cartesRecues = new ListeDeCartes();
-        listeEffets = new ArrayList<>();
+        nbEffets = new int[EFFETS.length];
 
         // créer 7 Train omnibus (non disponibles dans la réserve)
         pioche.addAll(FabriqueListeDeCartes.creerListeDeCartes("Train omnibus", 7));
@@ -55,21 +116,71 @@ public class Joueur {
         }
         // prendre 1 Gare de la réserve
         pioche.add(jeu.prendreDansLaReserve("Gare"));
-        pioche.melanger();
+        pioche.melanger(random);
 
         piocherEnMain(5);
     }
 
+    /**
+     * Constructeur par recopie (utilisé pour copier une partie).
+     * Les cartes sont partagées avec {@code autre} (elles ne sont jamais modifiées), seules les listes
+     * de cartes sont copiées.
+     *
+     * @param autre le joueur à copier
+     * @param jeu   la partie à laquelle appartient la copie
+     */
+    Joueur(Joueur autre, Jeu jeu) {
+        this.jeu = jeu;
+        this.nom = autre.nom;
+        this.couleur = autre.couleur;
+        this.rang = autre.rang;
+        this.decideur = autre.decideur;
+        this.instructionTour = autre.instructionTour;
+        this.peutRecycler = autre.peutRecycler;
+        this.random = jeu.creerGenerateur();
+        argent = autre.argent;
+        score = autre.score;
+        nbPointsVictoireTuiles = autre.nbPointsVictoireTuiles;
+        nbTuilesReseau = autre.nbTuilesReseau;
+        pointsRails = autre.pointsRails;
+        nbJetonsRails = autre.nbJetonsRails;
+        main = new ListeDeCartes(autre.main);
+        defausse = new ListeDeCartes(autre.defausse);
+        pioche = new ListeDeCartes(autre.pioche);
+        cartesEnJeu = new ListeDeCartes(autre.cartesEnJeu);
+        cartesRecues = new ListeDeCartes(autre.cartesRecues);
+        nbEffets = autre.nbEffets.clone();
+        masqueEffets = autre.masqueEffets;
+        surcouts = autre.surcouts.clone();
+        masqueEffetsSurcouts = autre.masqueEffetsSurcouts;
+    }
+
     public Jeu getJeu() {
         return jeu;
     }
 
+    public int getRang() {
+        return rang;
+    }
+
+    public Decideur getDecideur() {
+        return decideur;
+    }
+
+    /**
+     * Fixe le fournisseur des décisions du joueur. Si {@code decideur} est {@code null}, les choix
+     * du joueur sont lus dans les entrées du jeu ({@link Jeu#lireLigne()}).
+     */
+    public void setDecideur(Decideur decideur) {
+        this.decideur = decideur;
+    }
+
     public boolean hasEffet(EffetTour effet) {
-        return listeEffets.contains(effet);
+        return (masqueEffets & (1 << effet.ordinal())) != 0;
     }
 
     public int nbEffet(EffetTour effet) {
-        return (int) listeEffets.stream().filter(e -> e.equals(effet)).count();
+        return nbEffets[effet.ordinal()];
     }
 
     public CouleurJoueur getCouleur() {
@@ -84,12 +195,78 @@ public class Joueur {
         return nbJetonsRails;
     }
 
+    /**
+     * @return la frontière du réseau du joueur, à jour pour les tuiles de la partie (elle est reconstruite si
+     * nécessaire)
+     */
+    public Frontiere getFrontiere() {
+        List<Tuile> tuiles = jeu.getTuiles();
+        if (!frontiere.estValide(tuiles)) {
+            frontiere.reconstruire(tuiles, this);
+        }
+        return frontiere;
+    }
+
+    /**
+     * Renvoie le surcoût que doit payer le joueur pour poser un rail sur une tuile (valeur de
+     * {@link Tuile#getSurcout(Joueur)}, lue dans une table qui n'est recalculée entièrement qu'après un
+     * changement des effets du joueur)
+     *
+     * @param indiceTuile l'indice de la tuile dans la liste des tuiles de la partie
+     */
+    public int getSurcout(int indiceTuile) {
+        List<Tuile> tuiles = jeu.getTuiles();
+        if (tuilesSurcouts != tuiles || masqueEffetsSurcouts != masqueEffets || surcouts.length != tuiles.size()) {
+            if (surcouts.length != tuiles.size()) {
+                surcouts = new int[tuiles.size()];
+            }
+            for (int i = 0; i < surcouts.length; i++) {
+                surcouts[i] = tuiles.get(i).getSurcout(this);
+            }
+            tuilesSurcouts = tuiles;
+            masqueEffetsSurcouts = masqueEffets;
+        }
+        return surcouts[indiceTuile];
+    }
+
+    /**
+     * Met à jour le surcoût de la tuile {@code tuile} dans la table des surcoûts du joueur (appelée après la
+     * pose ou le retrait d'un rail ou d'une gare sur la tuile). Si la tuile ne peut pas être retrouvée dans la
+     * table, la table sera recalculée entièrement.
+     */
+    public void mettreAJourSurcout(Tuile tuile) {
+        if (tuilesSurcouts == null || masqueEffetsSurcouts != masqueEffets) {
+            // la table sera recalculée à la prochaine lecture
+            return;
+        }
+        int i = tuile.getIndice();
+        if (i >= 0 && i < surcouts.length && tuilesSurcouts.get(i) == tuile) {
+            surcouts[i] = tuile.getSurcout(this);
+        } else {
+            tuilesSurcouts = null;
+        }
+    }
+
+    /**
+     * Copie la frontière et la table des surcoûts du joueur {@code autre} (utilisé pour copier une partie,
+     * une fois les tuiles copiées)
+     */
+    void copierDonneesTuiles(Joueur autre) {
+        frontiere = autre.frontiere.estValide(autre.jeu.getTuiles()) ? autre.frontiere.copier(jeu.getTuiles())
+                : new Frontiere();
+        tuilesSurcouts = autre.tuilesSurcouts == autre.jeu.getTuiles() ? jeu.getTuiles() : null;
+    }
+
+    public int getPointsRails() {
+        return pointsRails;
+    }
+
     public int getScore() {
         return score;
     }
 
     public void incrementerScore() {
-        score += 1;
+        modifierCompteurs(argent, pointsRails, nbJetonsRails, score + 1);
     }
 
     public ListeDeCartes getDefausse() {
@@ -190,9 +367,7 @@ public class Joueur {
      */
     public Carte piocher() {
         if (pioche.isEmpty()) {
-            pioche.addAll(defausse);
-            defausse.clear();
-            pioche.melanger();
+            pioche.ajouterEtMelanger(defausse, random);
         }
         if (pioche.isEmpty()) {
             return null;
@@ -237,93 +412,110 @@ public class Joueur {
         List<String> choixPossibles = jeu.getPositionsDepartDisponibles().stream().map(p -> "TUILE:" + p).toList();
         String choix = choisir("Choisissez votre position de départ", choixPossibles, null, false);
         int i = Integer.parseInt(choix.split(":")[1]);
-        this.nbJetonsRails -= 1;
+        modifierCompteurs(argent, pointsRails, nbJetonsRails - 1, score);
         jeu.getTuile(i).ajouterRail(this);
     }
 
     public void jouerTour() {
-        jeu.log("<div class=\"tour\">Tour de " + toLog() + "</div>");
+        jeu.log(Evenement.debutTour(this));
 
         // initialisation
-        boolean peutRecycler = true;
+        peutRecycler = true;
         boolean finTour = false;
 
         while (!finTour) {
-            // Préparer la liste de choix possibles
-            Set<String> choixPossibles = new HashSet<>();
-            // Si le joueur peut recycler de la ferraille
-            if (peutRecycler && main.getCarte("Ferraille") != null) {
-                choixPossibles.add("Ferraille");
-            }
-            // Cartes jouables en main
-            choixPossibles.addAll(main.stream()
-                    .filter(c -> c.peutEtreJouee(this))
-                    .map(Carte::getNom)
-                    .collect(Collectors.toSet()));
-            // Si le joueur peut poser des rails
-            if (pointsRails > 0 && nbJetonsRails > 0) {
-                for (String index : getPositionsRailDisponibles()) {
-                    choixPossibles.add("TUILE:" + index);
+            // Préparer la liste des actions possibles
+            remplirActionsPossibles(actionsPossibles);
+
+            // Choix de l'action à réaliser
+            int action;
+            if (decideur instanceof DecideurActions decideurActions) {
+                jeu.prompt(instructionTour, List.of(), true);
+                action = decideurActions.choisirAction(this, actionsPossibles);
+                if (!actionsPossibles.contient(action)) {
+                    throw new IllegalStateException("Action invalide du décideur : \"" + Action.versChoix(action) + "\"");
                 }
+            } else {
+                Set<String> choixPossibles = new HashSet<>();
+                for (int i = 0; i < actionsPossibles.size(); i++) {
+                    int possible = actionsPossibles.get(i);
+                    if (possible != Action.PASSER) {
+                        choixPossibles.add(Action.versChoix(possible));
+                    }
+                }
+                action = Action.depuisChoix(choisir(instructionTour, choixPossibles, null, true));
             }
-            // Cartes que le joueur peut acheter
-            for (String carte : getCartesAchatPossibles()) {
-                choixPossibles.add("ACHAT:" + carte);
-            }
+            finTour = appliquerAction(action);
+        }
+        finaliserLeTour();
+    }
 
-            // Choix de l'action à réaliser
-            String input = choisir(String.format("Tour de %s", this.nom), choixPossibles, null, true);
+    /**
+     * Remplit {@code actions} avec les actions possibles du joueur à ce moment de son tour (voir {@link Action}) :
+     * passer, recycler la ferraille (seulement avant toute autre action), jouer une carte de la main, poser un
+     * rail, acheter une carte de la réserve.
+     *
+     * @param actions la liste à remplir (son contenu précédent est effacé)
+     */
+    public void remplirActionsPossibles(ListeActions actions) {
+        generateurActions.remplir(actions, peutRecycler);
+    }
 
-            if (input.isEmpty()) {
+    /**
+     * Applique une action de la boucle principale du tour (voir {@link Action}) sans vérifier qu'elle est
+     * possible
+     *
+     * @param action l'action à appliquer
+     * @return vrai si l'action termine le tour du joueur
+     */
+    public boolean appliquerAction(int action) {
+        switch (Action.getType(action)) {
+            case Action.TYPE_PASSER:
                 // Passer (fin du tour)
-                finTour = true;
-            } else if (input.equals("Ferraille")) {
+                return true;
+            case Action.TYPE_RECYCLER_FERRAILLE:
                 // Recycler la ferraille
                 recyclerFerraille();
-                finTour = true;
-            } else if (input.startsWith("TUILE:")) {
+                return true;
+            case Action.TYPE_POSER_RAIL:
                 // Poser un rail
-                int index = Integer.parseInt(input.split(":")[1]);
-                construireRail(index);
-            } else if (input.startsWith("ACHAT:")) {
+                construireRail(Action.getArgument(action));
+                break;
+            case Action.TYPE_ACHETER:
                 // Acheter une carte
-                String nomCarte = input.split(":")[1];
-                acheterCarte(nomCarte);
-            } else {
+                acheterCarte(FabriqueListeDeCartes.getNomCarte(Action.getArgument(action)));
+                break;
+            default:
                 // Jouer une carte de la main
-                jouerCarte(input);
-            }
-            peutRecycler = false; // Le joueur ne peut recycler qu'au début de son tour
+                jouerCarte(FabriqueListeDeCartes.getNomCarte(Action.getArgument(action)));
         }
-        finaliserLeTour();
+        peutRecycler = false; // Le joueur ne peut recycler qu'au début de son tour
+        return false;
     }
 
     private void recyclerFerraille() {
-        List<Carte> ferrailles = main
-                .stream()
-                .filter(c -> c.hasType(TypeCarte.FERRAILLE))
-                .toList();
-        for (Carte c : ferrailles) {
-            main.remove(c);
-            jeu.remettreCarteDansLaReserve(c);
+        int nbFerrailles = main.count("Ferraille");
+        Carte ferraille = null;
+        for (int i = 0; i < nbFerrailles; i++) {
+            ferraille = main.retirer("Ferraille");
+            jeu.remettreCarteDansLaReserve(ferraille);
         }
-        log(String.format("Recycle %d %s", ferrailles.size(), ferrailles.get(0).toLog()));
+        log(Evenement.recycle(ferraille, nbFerrailles));
     }
 
     private void construireRail(int index) {
-        log(String.format("Construit un rail en %s", Plateau.getCoordonnees(index)));
-        this.nbJetonsRails -= 1;
-        this.pointsRails -= 1;
+        log(Evenement.rail(index));
+        modifierCompteurs(argent, pointsRails - 1, nbJetonsRails - 1, score);
         Tuile tuile = jeu.getTuile(index);
         tuile.onConstruitRail(this);
-        this.argent -= tuile.getSurcout(this);
+        modifierCompteurs(argent - getSurcout(index), pointsRails, nbJetonsRails, score);
         tuile.ajouterRail(this);
     }
 
     private Carte acheterCarte(String nomCarte) {
         Carte carte = recevoir(nomCarte);
-        log(String.format("Achète %s", carte.toLog()));
-        argent -= carte.getCout();
+        log(Evenement.achete(carte));
+        modifierCompteurs(argent - carte.getCout(), pointsRails, nbJetonsRails, score);
         carte.onAchat(this);
         if (hasEffet(EffetTour.TRAIN_MATINAL)) {
             String choix = choisir(
@@ -341,19 +533,12 @@ public class Joueur {
 
     private void jouerCarte(String nomCarte) {
         Carte carte = main.retirer(nomCarte);
-        log(String.format("Joue %s", carte.toLog()));
+        log(Evenement.joue(carte));
         cartesEnJeu.add(carte);
         incrementerArgent(carte.getValeur());
         carte.jouer(this);
     }
 
-    private List<String> getCartesAchatPossibles() {
-        return jeu.getCartesDisponiblesEnReserve().stream()
-                .filter(carte -> carte.peutEtreAchetee(this))
-                .map(Carte::getNom)
-                .toList();
-    }
-
     /**
      * Termine le tour du joueur
      * <p>
@@ -362,9 +547,12 @@ public class Joueur {
      * - Le joueur pioche 5 cartes en main
      */
     private void finaliserLeTour() {
-        argent = 0;
-        pointsRails = 0;
-        listeEffets.clear();
+        modifierCompteurs(0, 0, nbJetonsRails, score);
+        if (masqueEffets != 0) {
+            int[] effets = nbEffets.clone();
+            enregistrer(() -> affecterEffets(effets), () -> affecterEffets(new int[EFFETS.length]));
+            affecterEffets(new int[EFFETS.length]);
+        }
         // défausse la main et les cartes en jeu
         defausse.addAll(cartesEnJeu);
         cartesEnJeu.clear();
@@ -396,11 +584,35 @@ public class Joueur {
         jeu.log(message);
     }
 
+    public void log(Evenement evenement) {
+        jeu.log(evenement);
+    }
+
     /**
      * @return le score total du joueur (score courant + points des cartes + points
      *         des villes et lieux éloignés)
      */
     public int getScoreTotal() {
+        int scoreTotal = score + main.getNbPointsVictoire() + cartesEnJeu.getNbPointsVictoire()
+                + cartesRecues.getNbPointsVictoire() + pioche.getNbPointsVictoire() + defausse.getNbPointsVictoire()
+                + nbPointsVictoireTuiles;
+        if (jeu.estVerificationScores()) {
+            int scoreCalcule = calculerScoreTotal();
+            if (scoreCalcule != scoreTotal) {
+                throw new IllegalStateException(String.format("Score de %s incohérent : %d (recalculé : %d)", nom,
+                        scoreTotal, scoreCalcule));
+            }
+        }
+        return scoreTotal;
+    }
+
+    /**
+     * Recalcule entièrement le score total du joueur (sans utiliser les sommes tenues à jour par les piles de
+     * cartes et les tuiles)
+     *
+     * @see #getScoreTotal()
+     */
+    public int calculerScoreTotal() {
         int scoreTotal = score;
         for (Carte c : toutesLesCartes()) {
             scoreTotal += c.getNbPointsVictoire();
@@ -477,6 +689,14 @@ public class Joueur {
         }
 
         String entree;
+        if (decideur != null) {
+            jeu.prompt(instruction, boutons, peutPasser);
+            entree = decideur.choisir(this, instruction, new ArrayList<>(choixDistincts));
+            if (!choixDistincts.contains(entree)) {
+                throw new IllegalStateException("Choix invalide du décideur : \"" + entree + "\"");
+            }
+            return entree;
+        }
         // Lit l'entrée de l'utilisateur jusqu'à obtenir un choix valide
         while (true) {
             jeu.prompt(instruction, boutons, peutPasser);
@@ -506,20 +726,154 @@ public class Joueur {
                 Map.entry("cartesEnJeu", cartesEnJeu.dataMap()),
                 Map.entry("cartesRecues", cartesRecues.dataMap()),
                 Map.entry("pioche", pioche.dataMap()),
-                Map.entry("listeEffets", listeEffets.stream().map(EffetTour::toString).toList()),
+                Map.entry("listeEffets", getListeEffets()),
                 Map.entry("actif", jeu.getJoueurCourant() == this));
     }
 
+    /**
+     * Écrit la représentation JSON du joueur (la même que celle de {@link #dataMap()}) dans {@code json}
+     */
+    void ecrireJson(JsonWriter json) throws IOException {
+        json.beginObject();
+        json.name("nom").value(nom);
+        json.name("couleur").value(couleur.name());
+        json.name("scoreTotal").value(getScoreTotal());
+        json.name("argent").value(argent);
+        json.name("rails").value(pointsRails);
+        json.name("nbJetonsRails").value(nbJetonsRails);
+        json.name("main");
+        main.ecrireJson(json);
+        json.name("defausse");
+        defausse.ecrireJson(json);
+        json.name("cartesEnJeu");
+        cartesEnJeu.ecrireJson(json);
+        json.name("cartesRecues");
+        cartesRecues.ecrireJson(json);
+        json.name("pioche");
+        pioche.ecrireJson(json);
+        json.name("listeEffets").beginArray();
+        for (int masque = masqueEffets; masque != 0; masque &= masque - 1) {
+            int i = Integer.numberOfTrailingZeros(masque);
+            for (int k = 0; k < nbEffets[i]; k++) {
+                json.value(EFFETS[i].toString());
+            }
+        }
+        json.endArray();
+        json.name("actif").value(jeu.getJoueurCourant() == this);
+        json.endObject();
+    }
+
+    /**
+     * Ajoute {@code points} aux points de victoire des tuiles du joueur (appelée par les tuiles lorsqu'un rail
+     * ou une gare est posé ou retiré)
+     */
+    public void ajouterPointsVictoireTuiles(int points) {
+        nbPointsVictoireTuiles += points;
+    }
+
+    /**
+     * @return le nombre de tuiles sur lesquelles le joueur a un rail
+     */
+    public int getNbTuilesReseau() {
+        return nbTuilesReseau;
+    }
+
+    /**
+     * Ajoute {@code nombre} au nombre de tuiles du réseau du joueur (appelée par les tuiles lorsqu'un rail est
+     * posé ou retiré)
+     */
+    public void ajouterTuilesReseau(int nombre) {
+        nbTuilesReseau += nombre;
+    }
+
     public void ajouterEffet(EffetTour effet) {
-        listeEffets.add(effet);
+        modifierEffet(effet, 1);
+        enregistrer(() -> modifierEffet(effet, -1), () -> modifierEffet(effet, 1));
+    }
+
+    private void modifierEffet(EffetTour effet, int nombre) {
+        int i = effet.ordinal();
+        nbEffets[i] += nombre;
+        if (nbEffets[i] > 0) {
+            masqueEffets |= 1 << i;
+        } else {
+            masqueEffets &= ~(1 << i);
+        }
+    }
+
+    private void affecterEffets(int[] effets) {
+        nbEffets = effets.clone();
+        masqueEffets = 0;
+        for (int i = 0; i < effets.length; i++) {
+            if (effets[i] > 0) {
+                masqueEffets |= 1 << i;
+            }
+        }
+    }
+
+    /**
+     * @return les noms des effets actifs pendant le tour, chacun répété autant de fois qu'il a été ajouté
+     * (dans l'ordre de déclaration de {@link EffetTour})
+     */
+    private List<String> getListeEffets() {
+        List<String> effets = new ArrayList<>();
+        for (int masque = masqueEffets; masque != 0; masque &= masque - 1) {
+            int i = Integer.numberOfTrailingZeros(masque);
+            for (int k = 0; k < nbEffets[i]; k++) {
+                effets.add(EFFETS[i].toString());
+            }
+        }
+        return effets;
     }
 
     public void incrementerRails() {
-        pointsRails++;
+        modifierCompteurs(argent, pointsRails + 1, nbJetonsRails, score);
     }
 
     public void incrementerArgent(int i) {
-        argent += i;
+        modifierCompteurs(argent + i, pointsRails, nbJetonsRails, score);
+    }
+
+    /**
+     * Modifie les compteurs du joueur (en enregistrant la modification dans le journal de la partie s'il existe)
+     */
+    private void modifierCompteurs(int argent, int pointsRails, int nbJetonsRails, int score) {
+        JournalActions journal = jeu.getJournal();
+        if (journal != null) {
+            int argentAvant = this.argent;
+            int pointsRailsAvant = this.pointsRails;
+            int nbJetonsRailsAvant = this.nbJetonsRails;
+            int scoreAvant = this.score;
+            journal.enregistrer(
+                    () -> affecterCompteurs(argentAvant, pointsRailsAvant, nbJetonsRailsAvant, scoreAvant),
+                    () -> affecterCompteurs(argent, pointsRails, nbJetonsRails, score));
+        }
+        affecterCompteurs(argent, pointsRails, nbJetonsRails, score);
+    }
+
+    private void affecterCompteurs(int argent, int pointsRails, int nbJetonsRails, int score) {
+        this.argent = argent;
+        this.pointsRails = pointsRails;
+        this.nbJetonsRails = nbJetonsRails;
+        this.score = score;
+    }
+
+    private void enregistrer(Runnable annuler, Runnable refaire) {
+        JournalActions journal = jeu.getJournal();
+        if (journal != null) {
+            journal.enregistrer(annuler, refaire);
+        }
+    }
+
+    /**
+     * Fixe le journal dans lequel sont enregistrées les modifications des piles de cartes du joueur
+     */
+    void setJournal(JournalActions journal) {
+        main.setJournal(journal);
+        pioche.setJournal(journal);
+        defausse.setJournal(journal);
+        cartesEnJeu.setJournal(journal);
+        cartesRecues.setJournal(journal);
     }
 
     public void remettreCarteDansLaReserve(Carte c) {
@@ -0,0 +1,113 @@
+package fr.umontpellier.iut.trains;
+
+import java.util.ArrayList;
+
+/**
+ * Journal des modifications réversibles d'une partie (cartes déplacées entre les piles, rails et gares
+ * posés, compteurs des joueurs, effets, joueur courant...).
+ * <p>
+ * Chaque modification est enregistrée avec son inverse : on peut revenir à un point de contrôle en
+ * temps proportionnel au nombre de modifications à annuler ({@link #annulerJusqua(int)}), puis
+ * éventuellement les refaire ({@link #refaire()}).
+ * <p>
+ * Les tirages des générateurs pseudo-aléatoires ne sont pas annulés : refaire un mélange rétablit
+ * l'ordre obtenu initialement, mais un nouveau mélange après une annulation donnera un autre ordre.
+ */
+public class JournalActions {
+    private final ArrayList<Runnable> annulations;
+    private final ArrayList<Runnable> refaits;
+    /**
+     * Nombre de modifications actuellement appliquées (les modifications suivantes peuvent être refaites)
+     */
+    private int position;
+    /**
+     * Vrai pendant qu'une modification est annulée ou refaite (rien n'est alors enregistré)
+     */
+    private boolean enRejeu;
+
+    public JournalActions() {
+        annulations = new ArrayList<>();
+        refaits = new ArrayList<>();
+    }
+
+    /**
+     * Enregistre une modification qui vient d'être faite. Les modifications annulées qui n'avaient pas été
+     * refaites sont oubliées.
+     *
+     * @param annuler action qui annule la modification
+     * @param refaire action qui refait la modification
+     */
+    public void enregistrer(Runnable annuler, Runnable refaire) {
+        if (enRejeu) {
+            return;
+        }
+        if (position < annulations.size()) {
+            annulations.subList(position, annulations.size()).clear();
+            refaits.subList(position, refaits.size()).clear();
+        }
+        annulations.add(annuler);
+        refaits.add(refaire);
+        position++;
+    }
+
+    /**
+     * @return un point de contrôle correspondant à l'état courant (à passer à {@link #annulerJusqua(int)})
+     */
+    public int getPointDeControle() {
+        return position;
+    }
+
+    /**
+     * Annule la dernière modification
+     *
+     * @return {@code false} s'il n'y avait aucune modification à annuler
+     */
+    public boolean annuler() {
+        if (position == 0) {
+            return false;
+        }
+        enRejeu = true;
+        try {
+            annulations.get(--position).run();
+        } finally {
+            enRejeu = false;
+        }
+        return true;
+    }
+
+    /**
+     * Refait la dernière modification annulée
+     *
+     * @return {@code false} s'il n'y avait aucune modification à refaire
+     */
+    public boolean refaire() {
+        if (position == annulations.size()) {
+            return false;
+        }
+        enRejeu = true;
+        try {
+            refaits.get(position++).run();
+        } finally {
+            enRejeu = false;
+        }
+        return true;
+    }
+
+    /**
+     * Annule toutes les modifications faites depuis le point de contrôle {@code pointDeControle}
+     */
+    public void annulerJusqua(int pointDeControle) {
+        while (position > pointDeControle && annuler()) {
+            // annule une modification à la fois
+        }
+    }
+
+    /**
+     * Oublie toutes les modifications enregistrées (l'état courant devient le point de contrôle 0)
+     */
+    public void vider() {
+        annulations.clear();
+        refaits.clear();
+        position = 0;
+    }
+}
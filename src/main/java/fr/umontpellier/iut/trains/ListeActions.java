@@ -0,0 +1,66 @@
+package fr.umontpellier.iut.trains;
+
+import java.util.Arrays;
+
+/**
+ * Liste d'actions codées par des entiers (voir {@link Action}), réutilisable d'un choix à l'autre
+ * pour éviter les allocations.
+ */
+public class ListeActions {
+    private int[] actions;
+    private int taille;
+
+    public ListeActions() {
+        actions = new int[64];
+    }
+
+    public void ajouter(int action) {
+        if (taille == actions.length) {
+            actions = Arrays.copyOf(actions, 2 * taille);
+        }
+        actions[taille++] = action;
+    }
+
+    public int get(int i) {
+        if (i >= taille) {
+            throw new IndexOutOfBoundsException(i);
+        }
+        return actions[i];
+    }
+
+    public int size() {
+        return taille;
+    }
+
+    public boolean contient(int action) {
+        for (int i = 0; i < taille; i++) {
+            if (actions[i] == action) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void vider() {
+        taille = 0;
+    }
+
+    /**
+     * @return une copie des actions de la liste
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(actions, taille);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder("[");
+        for (int i = 0; i < taille; i++) {
+            if (i > 0) {
+                s.append(", ");
+            }
+            s.append('"').append(Action.versChoix(actions[i])).append('"');
+        }
+        return s.append(']').toString();
+    }
+}
@@ -3,6 +3,7 @@ package fr.umontpellier.iut.trains.cartes;
 import java.util.HashSet;
 import java.util.Set;
 
+import fr.umontpellier.iut.trains.Evenement;
 import fr.umontpellier.iut.trains.Joueur;
 
 public class AtelierDeMaintenance extends Carte {
@@ -28,7 +29,7 @@ public class AtelierDeMaintenance extends Carte {
             return;
         }
         Carte carteDevoilee = joueur.getMain().getCarte(nomCarte);
-        joueur.log(String.format("... dévoile %s", carteDevoilee.toLog()));
+        joueur.log(Evenement.devoile(carteDevoilee));
         joueur.recevoir(nomCarte);
     }
 }
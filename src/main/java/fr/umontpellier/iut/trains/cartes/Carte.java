@@ -11,12 +11,17 @@ public abstract class Carte implements Comparable<Carte> {
     private final String nom;
     private final int valeur;
     private final List<TypeCarte> types;
+    /**
+     * Identifiant entier de la carte (voir {@link FabriqueListeDeCartes#getIdentifiant(String)})
+     */
+    private final int identifiant;
 
     public Carte(String nom, int cout, int valeur, TypeCarte... types) {
         this.cout = cout;
         this.nom = nom;
         this.valeur = valeur;
         this.types = Arrays.asList(types);
+        this.identifiant = FabriqueListeDeCartes.getIdentifiant(nom);
     }
 
     public int getCout() {
@@ -27,6 +32,10 @@ public abstract class Carte implements Comparable<Carte> {
         return nom;
     }
 
+    public int getIdentifiant() {
+        return identifiant;
+    }
+
     public int getValeur() {
         return valeur;
     }
@@ -4,6 +4,7 @@ import java.util.Collection;
 import java.util.List;
 
 import fr.umontpellier.iut.trains.Bouton;
+import fr.umontpellier.iut.trains.Evenement;
 import fr.umontpellier.iut.trains.Joueur;
 
 public class CentreDeControle extends Carte {
@@ -20,10 +21,10 @@ public class CentreDeControle extends Carte {
         Collection<String> nomsCartes = joueur.getJeu().getListeNomsCartes();
         List<Bouton> boutons = nomsCartes.stream().map(Bouton::new).toList();
         String nomCarte = joueur.choisir("Nommez une carte", null, boutons, false);
-        joueur.log(String.format("... annonce %s", nomCarte));
+        joueur.log(Evenement.annonce(nomCarte));
         Carte carteDevoilee = joueur.piocher();
         if (carteDevoilee != null) {
-            joueur.log(String.format("... révèle %s", carteDevoilee.toLog()));
+            joueur.log(Evenement.revele(carteDevoilee));
             if (carteDevoilee.getNom().equals(nomCarte)) {
                 joueur.ajouterMain(carteDevoilee);
             } else {
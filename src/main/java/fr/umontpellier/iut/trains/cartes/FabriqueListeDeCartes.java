@@ -1,11 +1,12 @@
 package fr.umontpellier.iut.trains.cartes;
 
-import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Classe de fabrication de listes de cartes
@@ -13,71 +14,168 @@ import java.util.Set;
 public abstract class FabriqueListeDeCartes {
 
     /**
-     * Dictionnaire de cartes
+     * Dictionnaire des constructeurs de cartes, indexés par nom
      */
-    private static final HashMap<String, Class<? extends Carte>> dicoCards = new HashMap<>();
+    private static final HashMap<String, Supplier<Carte>> dicoCards = new HashMap<>();
 
     static {
-        dicoCards.put("Aiguillage", Aiguillage.class);
-        dicoCards.put("Appartement", Appartement.class);
-        dicoCards.put("Atelier de maintenance", AtelierDeMaintenance.class);
-        dicoCards.put("Bureau du chef de gare", BureauDuChefDeGare.class);
-        dicoCards.put("Cabine du conducteur", CabineDuConducteur.class);
-        dicoCards.put("Centre de contrôle", CentreDeControle.class);
-        dicoCards.put("Centre de renseignements", CentreDeRenseignements.class);
-        dicoCards.put("Coopération", Cooperation.class);
-        dicoCards.put("Décharge", Decharge.class);
-        dicoCards.put("Dépôt", Depot.class);
-        dicoCards.put("Dépotoir", Depotoir.class);
-        dicoCards.put("Échangeur", Echangeur.class);
-        dicoCards.put("Ferraille", Ferraille.class);
-        dicoCards.put("Ferronnerie", Ferronnerie.class);
-        dicoCards.put("Feu de signalisation", FeuDeSignalisation.class);
-        dicoCards.put("Gare", Gare.class);
-        dicoCards.put("Gratte-ciel", GratteCiel.class);
-        dicoCards.put("Horaires estivaux", HorairesEstivaux.class);
-        dicoCards.put("Horaires temporaires", HorairesTemporaires.class);
-        dicoCards.put("Immeuble", Immeuble.class);
-        dicoCards.put("Parc d'attractions", ParcDAttractions.class);
-        dicoCards.put("Passage en gare", PassageEnGare.class);
-        dicoCards.put("Personnel de gare", PersonnelDeGare.class);
-        dicoCards.put("Pont en acier", PontEnAcier.class);
-        dicoCards.put("Pose de rails", PoseDeRails.class);
-        dicoCards.put("Remorquage", Remorquage.class);
-        dicoCards.put("Salle de contrôle", SalleDeControle.class);
-        dicoCards.put("TGV", TGV.class);
-        dicoCards.put("Train de marchandises", TrainDeMarchandises.class);
-        dicoCards.put("Train de tourisme", TrainDeTourisme.class);
-        dicoCards.put("Train direct", TrainDirect.class);
-        dicoCards.put("Train express", TrainExpress.class);
-        dicoCards.put("Train matinal", TrainMatinal.class);
-        dicoCards.put("Train omnibus", TrainOmnibus.class);
-        dicoCards.put("Train postal", TrainPostal.class);
-        dicoCards.put("Tunnel", Tunnel.class);
-        dicoCards.put("Usine de wagons", UsineDeWagons.class);
-        dicoCards.put("Viaduc", Viaduc.class);
-        dicoCards.put("Voie souterraine", VoieSouterraine.class);
+        dicoCards.put("Aiguillage", Aiguillage::new);
+        dicoCards.put("Appartement", Appartement::new);
+        dicoCards.put("Atelier de maintenance", AtelierDeMaintenance::new);
+        dicoCards.put("Bureau du chef de gare", BureauDuChefDeGare::new);
+        dicoCards.put("Cabine du conducteur", CabineDuConducteur::new);
+        dicoCards.put("Centre de contrôle", CentreDeControle::new);
+        dicoCards.put("Centre de renseignements", CentreDeRenseignements::new);
+        dicoCards.put("Coopération", Cooperation::new);
+        dicoCards.put("Décharge", Decharge::new);
+        dicoCards.put("Dépôt", Depot::new);
+        dicoCards.put("Dépotoir", Depotoir::new);
+        dicoCards.put("Échangeur", Echangeur::new);
+        dicoCards.put("Ferraille", Ferraille::new);
+        dicoCards.put("Ferronnerie", Ferronnerie::new);
+        dicoCards.put("Feu de signalisation", FeuDeSignalisation::new);
+        dicoCards.put("Gare", Gare::new);
+        dicoCards.put("Gratte-ciel", GratteCiel::new);
+        dicoCards.put("Horaires estivaux", HorairesEstivaux::new);
+        dicoCards.put("Horaires temporaires", HorairesTemporaires::new);
+        dicoCards.put("Immeuble", Immeuble::new);
+        dicoCards.put("Parc d'attractions", ParcDAttractions::new);
+        dicoCards.put("Passage en gare", PassageEnGare::new);
+        dicoCards.put("Personnel de gare", PersonnelDeGare::new);
+        dicoCards.put("Pont en acier", PontEnAcier::new);
+        dicoCards.put("Pose de rails", PoseDeRails::new);
+        dicoCards.put("Remorquage", Remorquage::new);
+        dicoCards.put("Salle de contrôle", SalleDeControle::new);
+        dicoCards.put("TGV", TGV::new);
+        dicoCards.put("Train de marchandises", TrainDeMarchandises::new);
+        dicoCards.put("Train de tourisme", TrainDeTourisme::new);
+        dicoCards.put("Train direct", TrainDirect::new);
+        dicoCards.put("Train express", TrainExpress::new);
+        dicoCards.put("Train matinal", TrainMatinal::new);
+        dicoCards.put("Train omnibus", TrainOmnibus::new);
+        dicoCards.put("Train postal", TrainPostal::new);
+        dicoCards.put("Tunnel", Tunnel::new);
+        dicoCards.put("Usine de wagons", UsineDeWagons::new);
+        dicoCards.put("Viaduc", Viaduc::new);
+        dicoCards.put("Voie souterraine", VoieSouterraine::new);
     }
 
     /**
-     * Renvoie une liste de cartes
+     * Noms de toutes les cartes, dans l'ordre alphabétique : l'identifiant d'une carte est son indice
+     * dans ce tableau
+     */
+    private static final String[] nomsCartes = dicoCards.keySet().stream().sorted().toArray(String[]::new);
+
+    /**
+     * Identifiants des cartes, indexés par nom
+     */
+    private static final HashMap<String, Integer> identifiants = new HashMap<>();
+
+    /**
+     * Constructeurs des cartes, indexés par identifiant
+     */
+    private static final List<Supplier<Carte>> constructeurs = new ArrayList<>(nomsCartes.length);
+
+    /**
+     * Instance partagée de chaque carte, indexée par identifiant (les cartes ne sont pas modifiables)
+     */
+    private static final Carte[] instances = new Carte[nomsCartes.length];
+
+    static {
+        for (int i = 0; i < nomsCartes.length; i++) {
+            identifiants.put(nomsCartes[i], i);
+        }
+        // les identifiants doivent être connus avant de construire les cartes (voir Carte#getIdentifiant)
+        for (int i = 0; i < nomsCartes.length; i++) {
+            constructeurs.add(dicoCards.get(nomsCartes[i]));
+            instances[i] = constructeurs.get(i).get();
+        }
+    }
+
+    /**
+     * Renvoie l'identifiant entier d'une carte (entre 0 et {@link #getNbCartes()} - 1), utilisé par exemple
+     * pour coder les actions des joueurs sans chaîne de caractères
+     *
+     * @param nomCarte le nom de la carte
+     * @return l'identifiant de la carte, ou -1 si aucune carte ne porte ce nom
+     */
+    public static int getIdentifiant(String nomCarte) {
+        return identifiants.getOrDefault(nomCarte, -1);
+    }
+
+    /**
+     * @param identifiant l'identifiant d'une carte (voir {@link #getIdentifiant(String)})
+     * @return le nom de la carte
+     */
+    public static String getNomCarte(int identifiant) {
+        return nomsCartes[identifiant];
+    }
+
+    /**
+     * @return le nombre de cartes différentes
+     */
+    public static int getNbCartes() {
+        return nomsCartes.length;
+    }
+
+    /**
+     * Renvoie l'instance partagée d'une carte. Les cartes n'étant pas modifiables, cette instance peut être
+     * utilisée partout où une carte de ce nom est attendue.
+     *
+     * @param identifiant l'identifiant d'une carte (voir {@link #getIdentifiant(String)})
+     * @return l'instance partagée de la carte
+     */
+    public static Carte getCarte(int identifiant) {
+        return instances[identifiant];
+    }
+
+    /**
+     * @param nomCarte le nom d'une carte
+     * @return l'instance partagée de la carte (voir {@link #getCarte(int)})
+     * @throws IllegalArgumentException si aucune carte ne porte ce nom
+     */
+    public static Carte getCarte(String nomCarte) {
+        return instances[verifierIdentifiant(nomCarte)];
+    }
+
+    private static int verifierIdentifiant(String nomCarte) {
+        int identifiant = getIdentifiant(nomCarte);
+        if (identifiant < 0) {
+            throw new IllegalArgumentException("Carte inconnue : " + nomCarte);
+        }
+        return identifiant;
+    }
+
+    /**
+     * Renvoie une liste de cartes, chacune étant une nouvelle instance
      * 
      * @param nomCarte le nom de la carte à mettre dans la liste
      * @param nombre   le nombre de cartes de la liste
      *
      * @return une liste de cartes de même type
+     * @throws IllegalArgumentException si aucune carte ne porte ce nom
      */
     public static ListeDeCartes creerListeDeCartes(String nomCarte, int nombre) {
-        ListeDeCartes pile = new ListeDeCartes();
+        Supplier<Carte> constructeur = constructeurs.get(verifierIdentifiant(nomCarte));
+        Carte[] cartes = new Carte[nombre];
         for (int i = 0; i < nombre; i++) {
-            try {
-                pile.add(dicoCards.get(nomCarte).getDeclaredConstructor().newInstance());
-            } catch (InstantiationException | IllegalAccessException | InvocationTargetException
-                    | NoSuchMethodException e) {
-                System.err.println("Creation de cartes impossible");
-            }
+            cartes[i] = constructeur.get();
         }
-        return pile;
+        return new ListeDeCartes(Arrays.asList(cartes));
+    }
+
+    /**
+     * Renvoie une pile de réserve représentée par l'instance partagée de la carte et un compteur
+     * (voir {@link PileReserve})
+     *
+     * @param nomCarte le nom de la carte de la pile
+     * @param nombre   le nombre de cartes de la pile
+     *
+     * @return une pile de {@code nombre} cartes identiques
+     * @throws IllegalArgumentException si aucune carte ne porte ce nom
+     */
+    public static PileReserve creerPileReserve(String nomCarte, int nombre) {
+        return new PileReserve(getCarte(nomCarte), nombre);
     }
 
     public static List<String> getNomsCartesCommunes() {
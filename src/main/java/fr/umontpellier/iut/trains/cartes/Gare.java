@@ -2,8 +2,8 @@ package fr.umontpellier.iut.trains.cartes;
 
 import java.util.List;
 
+import fr.umontpellier.iut.trains.Evenement;
 import fr.umontpellier.iut.trains.Joueur;
-import fr.umontpellier.iut.trains.plateau.Plateau;
 
 public class Gare extends Carte {
 
@@ -20,7 +20,7 @@ public class Gare extends Carte {
         String choix = joueur.choisir("Sélectionner la tuile où placer la gare", choixPossibles, null, false);
         if (!choix.isEmpty()) {
             int i = Integer.parseInt(choix.split(":")[1]);
-            joueur.log(String.format("... place une gare en %s", Plateau.getCoordonnees(i)));
+            joueur.log(Evenement.gare(i));
             joueur.ajouterGare(i);
         }
 
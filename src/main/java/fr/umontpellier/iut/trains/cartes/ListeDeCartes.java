@@ -1,34 +1,464 @@
 package fr.umontpellier.iut.trains.cartes;
 
+import java.io.IOException;
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
 import java.util.StringJoiner;
+import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
 
+import com.google.gson.stream.JsonWriter;
+
+import fr.umontpellier.iut.trains.JournalActions;
+
 /**
  * Liste de cartes
+ * <p>
+ * Les cartes sont rangées dans un tableau circulaire : ajouter ou retirer une carte à l'une des deux
+ * extrémités de la liste (par exemple sur le dessus de la pioche) se fait en temps constant, et une insertion
+ * ou une suppression au milieu ne décale que le plus petit des deux côtés. Toutes les modifications passent
+ * par quelques méthodes de stockage protégées ({@link #inserer(int, Carte)}, {@link #supprimer(int)},
+ * {@link #remplacer(int, Carte)}, {@link #insererTout(int, Carte[])} et {@link #supprimerIntervalle(int, int)}),
+ * que les sous-classes peuvent redéfinir avec {@link #get(int)} et {@link #size()} pour changer la
+ * représentation de la liste (voir {@link PileReserve}).
+ * <p>
+ * La liste tient aussi à jour le nombre de cartes de chaque nom, indexé par identifiant (voir
+ * {@link FabriqueListeDeCartes#getIdentifiant(String)}) : {@link #count(String)} est en temps constant, et
+ * {@link #getCarte(String)} et {@link #retirer(String)} ne parcourent la liste que si elle contient la carte
+ * cherchée. L'ordre des cartes est conservé (il compte par exemple pour la pioche).
  */
-public class ListeDeCartes extends ArrayList<Carte> {
+public class ListeDeCartes extends AbstractList<Carte> implements RandomAccess {
+    private static final Carte[] VIDE = {};
+
+    private Carte[] cartes;
+    /**
+     * Position dans {@link #cartes} de la première carte de la liste
+     */
+    private int debut;
+    private int taille;
+    /**
+     * Nombre de cartes de la liste pour chaque identifiant de carte
+     */
+    private final int[] compteurs = new int[FabriqueListeDeCartes.getNbCartes()];
+    /**
+     * Journal dans lequel sont enregistrées les modifications de la liste ({@code null} si elles ne sont pas
+     * enregistrées). Seules les opérations {@code add}, {@code addAll}, {@code remove}, {@code set},
+     * {@code clear} (y compris {@code subList(...).clear()}) et {@code melanger} sont enregistrées.
+     */
+    private JournalActions journal;
+    /**
+     * Somme des points de victoire des cartes de la liste, tenue à jour par les opérations redéfinies
+     * ci-dessous. Elle n'est valide que si {@link #modCountPoints} est égal à {@code modCount} : après une
+     * autre modification (par exemple {@code removeIf} ou {@code subList(...).clear()}), elle est recalculée
+     * au prochain appel de {@link #getNbPointsVictoire()}.
+     */
+    private int nbPointsVictoire;
+    private int modCountPoints;
+
     /**
      * Constructeur vide
      */
     public ListeDeCartes() {
-        super();
+        cartes = VIDE;
     }
 
     /**
      * Constructeur à partir d'une liste de cartes
      */
     public ListeDeCartes(List<Carte> l) {
-        super(l);
+        cartes = l.toArray(new Carte[0]);
+        taille = cartes.length;
+        for (Carte carte : cartes) {
+            compter(carte, 1);
+        }
+        if (l instanceof ListeDeCartes autre && autre.modCountPoints == autre.modCount) {
+            nbPointsVictoire = autre.nbPointsVictoire;
+        } else {
+            nbPointsVictoire = sommePoints(this);
+        }
+        modCountPoints = modCount;
+    }
+
+    /**
+     * @return une copie indépendante de la liste, de même représentation
+     */
+    public ListeDeCartes copier() {
+        return new ListeDeCartes(this);
+    }
+
+    @Override
+    public Carte get(int i) {
+        Objects.checkIndex(i, taille);
+        return cartes[indiceTableau(i)];
+    }
+
+    @Override
+    public int size() {
+        return taille;
+    }
+
+    /**
+     * @return la position dans le tableau {@link #cartes} de la carte d'indice {@code i} (compris entre 0 et la
+     * capacité du tableau)
+     */
+    private int indiceTableau(int i) {
+        int indice = debut + i;
+        return indice >= cartes.length ? indice - cartes.length : indice;
+    }
+
+    /**
+     * Insère la carte à la position {@code i} (comprise entre 0 et {@code size()}), sans autre traitement
+     */
+    protected void inserer(int i, Carte carte) {
+        if (taille == cartes.length) {
+            agrandir(taille + 1);
+        }
+        if (i < taille - i) {
+            // décale les cartes qui précèdent d'une case vers la gauche
+            debut = debut == 0 ? cartes.length - 1 : debut - 1;
+            for (int k = 0; k < i; k++) {
+                cartes[indiceTableau(k)] = cartes[indiceTableau(k + 1)];
+            }
+        } else {
+            // décale les cartes qui suivent d'une case vers la droite
+            for (int k = taille; k > i; k--) {
+                cartes[indiceTableau(k)] = cartes[indiceTableau(k - 1)];
+            }
+        }
+        cartes[indiceTableau(i)] = carte;
+        taille++;
+        compter(carte, 1);
+    }
+
+    /**
+     * Insère les cartes à la position {@code i} (comprise entre 0 et {@code size()}), sans autre traitement
+     */
+    protected void insererTout(int i, Carte[] ajoutees) {
+        int n = ajoutees.length;
+        if (n == 0) {
+            return;
+        }
+        if (taille + n > cartes.length) {
+            agrandir(taille + n);
+        }
+        if (i < taille - i) {
+            debut = debut < n ? debut - n + cartes.length : debut - n;
+            for (int k = 0; k < i; k++) {
+                cartes[indiceTableau(k)] = cartes[indiceTableau(k + n)];
+            }
+        } else {
+            for (int k = taille - 1; k >= i; k--) {
+                cartes[indiceTableau(k + n)] = cartes[indiceTableau(k)];
+            }
+        }
+        for (int k = 0; k < n; k++) {
+            cartes[indiceTableau(i + k)] = ajoutees[k];
+            compter(ajoutees[k], 1);
+        }
+        taille += n;
+    }
+
+    /**
+     * Retire la carte à la position {@code i} (une position valide), sans autre traitement
+     *
+     * @return la carte retirée
+     */
+    protected Carte supprimer(int i) {
+        Carte carte = cartes[indiceTableau(i)];
+        if (i < taille - 1 - i) {
+            for (int k = i; k > 0; k--) {
+                cartes[indiceTableau(k)] = cartes[indiceTableau(k - 1)];
+            }
+            cartes[debut] = null;
+            debut = indiceTableau(1);
+        } else {
+            for (int k = i; k < taille - 1; k++) {
+                cartes[indiceTableau(k)] = cartes[indiceTableau(k + 1)];
+            }
+            cartes[indiceTableau(taille - 1)] = null;
+        }
+        taille--;
+        compter(carte, -1);
+        return carte;
+    }
+
+    /**
+     * Remplace la carte à la position {@code i} (une position valide), sans autre traitement
+     *
+     * @return la carte remplacée
+     */
+    protected Carte remplacer(int i, Carte carte) {
+        int indice = indiceTableau(i);
+        Carte ancienne = cartes[indice];
+        cartes[indice] = carte;
+        compter(ancienne, -1);
+        compter(carte, 1);
+        return ancienne;
+    }
+
+    /**
+     * Retire les cartes dont la position est comprise entre {@code premier} (inclus) et {@code fin} (exclu),
+     * sans autre traitement
+     */
+    protected void supprimerIntervalle(int premier, int fin) {
+        int n = fin - premier;
+        for (int k = premier; k < fin; k++) {
+            compter(cartes[indiceTableau(k)], -1);
+        }
+        if (premier < taille - fin) {
+            for (int k = premier - 1; k >= 0; k--) {
+                cartes[indiceTableau(k + n)] = cartes[indiceTableau(k)];
+            }
+            for (int k = 0; k < n; k++) {
+                cartes[indiceTableau(k)] = null;
+            }
+            debut = indiceTableau(n);
+        } else {
+            for (int k = fin; k < taille; k++) {
+                cartes[indiceTableau(k - n)] = cartes[indiceTableau(k)];
+            }
+            for (int k = taille - n; k < taille; k++) {
+                cartes[indiceTableau(k)] = null;
+            }
+        }
+        taille -= n;
     }
 
     /**
-     * Mélange la liste
+     * Mélange les cartes de la liste en utilisant le générateur {@code random} (mélange de Fisher-Yates),
+     * sans autre traitement
      */
-    public void melanger() {
-        Collections.shuffle(this);
+    protected void melangerStockage(RandomGenerator random) {
+        for (int i = taille - 1; i > 0; i--) {
+            int a = indiceTableau(i);
+            int b = indiceTableau(random.nextInt(i + 1));
+            Carte carte = cartes[a];
+            cartes[a] = cartes[b];
+            cartes[b] = carte;
+        }
+    }
+
+    private void compter(Carte carte, int nombre) {
+        if (carte != null && carte.getIdentifiant() >= 0) {
+            compteurs[carte.getIdentifiant()] += nombre;
+        }
+    }
+
+    private void agrandir(int capaciteMin) {
+        Carte[] nouvelles = new Carte[Math.max(capaciteMin, Math.max(10, cartes.length + (cartes.length >> 1)))];
+        int fin = Math.min(taille, cartes.length - debut);
+        System.arraycopy(cartes, debut, nouvelles, 0, fin);
+        System.arraycopy(cartes, 0, nouvelles, fin, taille - fin);
+        cartes = nouvelles;
+        debut = 0;
+    }
+
+    private void verifierPositionInsertion(int i) {
+        if (i < 0 || i > size()) {
+            throw new IndexOutOfBoundsException("Position " + i + " hors de la liste de taille " + size());
+        }
+    }
+
+    /**
+     * @return la somme des points de victoire des cartes de la liste
+     */
+    public int getNbPointsVictoire() {
+        if (modCountPoints != modCount) {
+            nbPointsVictoire = sommePoints(this);
+            modCountPoints = modCount;
+        }
+        return nbPointsVictoire;
+    }
+
+    private static int sommePoints(Collection<? extends Carte> cartes) {
+        int somme = 0;
+        for (Carte carte : cartes) {
+            somme += points(carte);
+        }
+        return somme;
+    }
+
+    private static int sommePoints(Carte[] cartes) {
+        int somme = 0;
+        for (Carte carte : cartes) {
+            somme += points(carte);
+        }
+        return somme;
+    }
+
+    private static int points(Carte carte) {
+        return carte == null ? 0 : carte.getNbPointsVictoire();
+    }
+
+    /**
+     * Ajoute {@code points} à la somme des points de victoire, si elle était valide avant la modification
+     * (qui a fait passer {@code modCount} de {@code modCountAvant} à sa valeur actuelle)
+     */
+    private void ajouterPoints(int modCountAvant, int points) {
+        if (modCountPoints == modCountAvant) {
+            nbPointsVictoire += points;
+            modCountPoints = modCount;
+        }
+    }
+
+    public void setJournal(JournalActions journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * @return le nombre de modifications de la liste depuis sa création : deux appels qui renvoient la même
+     * valeur encadrent une période pendant laquelle le contenu de la liste n'a pas changé
+     */
+    public int getNbModifications() {
+        return modCount;
+    }
+
+    /**
+     * Mélange la liste en utilisant le générateur {@code random} (mélange de Fisher-Yates)
+     */
+    public void melanger(RandomGenerator random) {
+        List<Carte> avant = journal == null ? null : new ArrayList<>(this);
+        int modCountAvant = modCount;
+        melangerStockage(random);
+        modCount++;
+        ajouterPoints(modCountAvant, 0);
+        enregistrerMelange(avant);
+    }
+
+    /**
+     * Déplace toutes les cartes de {@code source} à la fin de la liste, puis mélange la liste en utilisant le
+     * générateur {@code random} (par exemple pour reformer la pioche à partir de la défausse)
+     */
+    public void ajouterEtMelanger(ListeDeCartes source, RandomGenerator random) {
+        addAll(source);
+        source.clear();
+        melanger(random);
+    }
+
+    private void enregistrerMelange(List<Carte> avant) {
+        if (journal != null) {
+            List<Carte> apres = new ArrayList<>(this);
+            journal.enregistrer(() -> remplacerContenu(avant), () -> remplacerContenu(apres));
+        }
+    }
+
+    private void remplacerContenu(List<Carte> cartes) {
+        supprimerIntervalle(0, size());
+        insererTout(0, cartes.toArray(new Carte[0]));
+        modCount++;
+    }
+
+    @Override
+    public void add(int i, Carte carte) {
+        verifierPositionInsertion(i);
+        int modCountAvant = modCount;
+        inserer(i, carte);
+        modCount++;
+        ajouterPoints(modCountAvant, points(carte));
+        if (journal != null) {
+            journal.enregistrer(() -> remove(i), () -> add(i, carte));
+        }
+    }
+
+    @Override
+    public Carte remove(int i) {
+        Objects.checkIndex(i, size());
+        int modCountAvant = modCount;
+        Carte carte = supprimer(i);
+        modCount++;
+        ajouterPoints(modCountAvant, -points(carte));
+        if (journal != null) {
+            journal.enregistrer(() -> add(i, carte), () -> remove(i));
+        }
+        return carte;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        int i = indexOf(o);
+        if (i < 0) {
+            return false;
+        }
+        remove(i);
+        return true;
+    }
+
+    @Override
+    public Carte set(int i, Carte carte) {
+        Objects.checkIndex(i, size());
+        int modCountAvant = modCount;
+        Carte ancienne = remplacer(i, carte);
+        modCount++;
+        ajouterPoints(modCountAvant, points(carte) - points(ancienne));
+        if (journal != null) {
+            journal.enregistrer(() -> set(i, ancienne), () -> set(i, carte));
+        }
+        return ancienne;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Carte> cartes) {
+        return addAll(size(), cartes);
+    }
+
+    @Override
+    public boolean addAll(int i, Collection<? extends Carte> cartes) {
+        verifierPositionInsertion(i);
+        Carte[] ajoutees = cartes.toArray(new Carte[0]);
+        if (ajoutees.length == 0) {
+            return false;
+        }
+        int modCountAvant = modCount;
+        insererTout(i, ajoutees);
+        modCount++;
+        ajouterPoints(modCountAvant, sommePoints(ajoutees));
+        if (journal != null) {
+            List<Carte> liste = Arrays.asList(ajoutees);
+            journal.enregistrer(() -> subList(i, i + ajoutees.length).clear(), () -> addAll(i, liste));
+        }
+        return true;
+    }
+
+    @Override
+    protected void removeRange(int debut, int fin) {
+        if (debut < fin) {
+            if (journal != null) {
+                List<Carte> retirees = new ArrayList<>(subList(debut, fin));
+                journal.enregistrer(() -> addAll(debut, retirees), () -> subList(debut, fin).clear());
+            }
+            supprimerIntervalle(debut, fin);
+            modCount++;
+        }
+    }
+
+    @Override
+    public void clear() {
+        if (isEmpty()) {
+            return;
+        }
+        if (journal != null) {
+            List<Carte> avant = new ArrayList<>(this);
+            journal.enregistrer(() -> remplacerContenu(avant), this::clear);
+        }
+        supprimerIntervalle(0, size());
+        modCount++;
+        nbPointsVictoire = 0;
+        modCountPoints = modCount;
+    }
+
+    /**
+     * Mélange une liste quelconque en utilisant le générateur {@code random} (mélange de Fisher-Yates)
+     */
+    public static <T> void melanger(List<T> liste, RandomGenerator random) {
+        for (int i = liste.size() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            liste.set(i, liste.set(j, liste.get(i)));
+        }
     }
 
     /**
@@ -38,12 +468,8 @@ public class ListeDeCartes extends ArrayList<Carte> {
      * @return la carte retirée si elle a été trouvée, {@code null} sinon
      */
     public Carte retirer(String nomCarte) {
-        for (Carte c : this)
-            if (c.getNom().equals(nomCarte)) {
-                remove(c);
-                return c;
-            }
-        return null;
+        int i = position(nomCarte);
+        return i < 0 ? null : remove(i);
     }
 
     /**
@@ -54,10 +480,26 @@ public class ListeDeCartes extends ArrayList<Carte> {
      *         {@code null} sinon
      */
     public Carte getCarte(String nomCarte) {
-        for (Carte c : this)
-            if (c.getNom().equals(nomCarte))
-                return c;
-        return null;
+        int i = position(nomCarte);
+        return i < 0 ? null : get(i);
+    }
+
+    /**
+     * Renvoie la position de la première carte de la liste ayant le nom cherché, ou -1 s'il n'y en a pas
+     * (la liste n'est parcourue que si elle contient une telle carte)
+     */
+    private int position(String nomCarte) {
+        int identifiant = FabriqueListeDeCartes.getIdentifiant(nomCarte);
+        if (identifiant >= 0 && count(identifiant) == 0) {
+            return -1;
+        }
+        for (int i = 0; i < size(); i++) {
+            Carte c = get(i);
+            if (identifiant >= 0 ? c.getIdentifiant() == identifiant : c.getNom().equals(nomCarte)) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     /**
@@ -67,6 +509,10 @@ public class ListeDeCartes extends ArrayList<Carte> {
      * @return un entier indiquant le nombre de cartes ayant le nom recherché
      */
     public int count(String nomCarte) {
+        int identifiant = FabriqueListeDeCartes.getIdentifiant(nomCarte);
+        if (identifiant >= 0) {
+            return count(identifiant);
+        }
         int total = 0;
         for (Carte c : this)
             if (c.getNom().equals(nomCarte))
@@ -74,6 +520,16 @@ public class ListeDeCartes extends ArrayList<Carte> {
         return total;
     }
 
+    /**
+     * Renvoie le nombre de cartes dans la liste ayant l'identifiant passé en argument
+     *
+     * @param identifiant l'identifiant des cartes à compter (voir {@link Carte#getIdentifiant()})
+     * @return un entier indiquant le nombre de cartes ayant cet identifiant
+     */
+    public int count(int identifiant) {
+        return compteurs[identifiant];
+    }
+
     /**
      * Représentation de la liste sous forme d'une chaîne de caractères
      *
@@ -92,4 +548,15 @@ public class ListeDeCartes extends ArrayList<Carte> {
     public Object dataMap() {
         return this.stream().map(Carte::getNom).toList();
     }
+
+    /**
+     * Écrit les noms des cartes de la liste dans {@code json}, sous forme de tableau
+     */
+    public void ecrireJson(JsonWriter json) throws IOException {
+        json.beginArray();
+        for (int i = 0, n = size(); i < n; i++) {
+            json.value(get(i).getNom());
+        }
+        json.endArray();
+    }
 }
@@ -0,0 +1,105 @@
+package fr.umontpellier.iut.trains.cartes;
+
+import java.util.Objects;
+
+/**
+ * Pile de la réserve représentée par une seule carte et un compteur.
+ * <p>
+ * Les cartes n'étant pas modifiables, toutes les cartes d'une pile de la réserve sont interchangeables : la
+ * pile se comporte comme une liste contenant {@code size()} fois la même instance. Prendre ou remettre une
+ * carte se fait en temps constant, sans créer d'objet. Seules des cartes portant le nom de la carte de la
+ * pile peuvent y être ajoutées.
+ */
+public class PileReserve extends ListeDeCartes {
+    private final Carte carte;
+    private int nombre;
+
+    /**
+     * @param carte  l'instance partagée par toutes les cartes de la pile
+     * @param nombre le nombre de cartes de la pile
+     */
+    public PileReserve(Carte carte, int nombre) {
+        if (nombre < 0) {
+            throw new IllegalArgumentException("Nombre de cartes négatif : " + nombre);
+        }
+        this.carte = carte;
+        this.nombre = nombre;
+    }
+
+    public Carte getCarte() {
+        return carte;
+    }
+
+    @Override
+    public PileReserve copier() {
+        return new PileReserve(carte, nombre);
+    }
+
+    @Override
+    public Carte get(int i) {
+        Objects.checkIndex(i, nombre);
+        return carte;
+    }
+
+    @Override
+    public int size() {
+        return nombre;
+    }
+
+    @Override
+    protected void inserer(int i, Carte c) {
+        verifierCarte(c);
+        nombre++;
+    }
+
+    @Override
+    protected void insererTout(int i, Carte[] ajoutees) {
+        for (Carte c : ajoutees) {
+            verifierCarte(c);
+        }
+        nombre += ajoutees.length;
+    }
+
+    @Override
+    protected Carte supprimer(int i) {
+        nombre--;
+        return carte;
+    }
+
+    @Override
+    protected Carte remplacer(int i, Carte c) {
+        verifierCarte(c);
+        return carte;
+    }
+
+    @Override
+    protected void supprimerIntervalle(int debut, int fin) {
+        nombre -= fin - debut;
+    }
+
+    private void verifierCarte(Carte c) {
+        if (c == null || !c.getNom().equals(carte.getNom())) {
+            throw new IllegalArgumentException("La pile " + carte.getNom() + " ne peut pas contenir la carte " + c);
+        }
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        return nombre > 0 && carte.equals(o) ? 0 : -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return nombre > 0 && carte.equals(o) ? nombre - 1 : -1;
+    }
+
+    @Override
+    public int count(int identifiant) {
+        return identifiant == carte.getIdentifiant() ? nombre : 0;
+    }
+
+    @Override
+    public int getNbPointsVictoire() {
+        return nombre * carte.getNbPointsVictoire();
+    }
+}
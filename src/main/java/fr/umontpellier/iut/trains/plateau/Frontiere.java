@@ -0,0 +1,140 @@
+package fr.umontpellier.iut.trains.plateau;
+
+import java.util.Arrays;
+import java.util.List;
+
+import fr.umontpellier.iut.trains.Joueur;
+
+/**
+ * Frontière du réseau d'un joueur : ensemble des indices des tuiles accessibles au joueur, c'est-à-dire
+ * voisines de son réseau sans en faire partie (voir {@link Tuile#estAccessible(Joueur)}).
+ * <p>
+ * La frontière est mise à jour par {@link Tuile#ajouterRail(Joueur)} en temps proportionnel au nombre de
+ * voisines de la tuile : les candidats pour la pose d'un rail s'obtiennent donc en parcourant la frontière
+ * plutôt que tout le plateau. Une frontière correspond à une liste de tuiles : elle est reconstruite
+ * entièrement si la liste de tuiles de la partie change, ou si elle a été invalidée (par l'annulation d'un
+ * rail).
+ */
+public class Frontiere {
+    /**
+     * Tuiles auxquelles correspond la frontière ({@code null} si la frontière doit être reconstruite)
+     */
+    private List<Tuile> tuiles;
+    /**
+     * Indices des tuiles de la frontière (dans les {@code taille} premières cases)
+     */
+    private int[] indices;
+    private int taille;
+    /**
+     * Position de chaque tuile dans {@link #indices} (-1 si la tuile n'est pas dans la frontière)
+     */
+    private int[] positions;
+
+    public Frontiere() {
+        indices = new int[0];
+        positions = new int[0];
+    }
+
+    /**
+     * @return vrai si la frontière est à jour pour les tuiles {@code tuiles}
+     */
+    public boolean estValide(List<Tuile> tuiles) {
+        return this.tuiles == tuiles;
+    }
+
+    public void invalider() {
+        tuiles = null;
+    }
+
+    /**
+     * Recalcule entièrement la frontière du joueur sur les tuiles {@code tuiles} (et numérote les tuiles)
+     */
+    public void reconstruire(List<Tuile> tuiles, Joueur joueur) {
+        this.tuiles = tuiles;
+        indices = new int[tuiles.size()];
+        positions = new int[tuiles.size()];
+        Arrays.fill(positions, -1);
+        taille = 0;
+        for (int i = 0; i < tuiles.size(); i++) {
+            tuiles.get(i).setIndice(i);
+        }
+        for (int i = 0; i < tuiles.size(); i++) {
+            if (tuiles.get(i).estAccessible(joueur)) {
+                ajouter(i);
+            }
+        }
+    }
+
+    /**
+     * @return une copie de la frontière, correspondant aux tuiles {@code tuiles} (copie des tuiles d'origine,
+     * dans le même ordre), ou une frontière à reconstruire si celle-ci n'est pas à jour
+     */
+    public Frontiere copier(List<Tuile> tuiles) {
+        Frontiere copie = new Frontiere();
+        if (this.tuiles != null) {
+            copie.tuiles = tuiles;
+            copie.indices = indices.clone();
+            copie.positions = positions.clone();
+            copie.taille = taille;
+        }
+        return copie;
+    }
+
+    /**
+     * Met à jour la frontière après la pose d'un rail du joueur sur la tuile {@code tuile}
+     */
+    void mettreAJour(Tuile tuile, Joueur joueur) {
+        if (!appartient(tuile)) {
+            // tuile qui n'est pas dans la partie : la frontière sera recalculée
+            invalider();
+            return;
+        }
+        retirer(tuile.getIndice());
+        for (Tuile voisine : tuile.getVoisines()) {
+            if (!appartient(voisine)) {
+                invalider();
+                return;
+            }
+            if (voisine.estAccessible(joueur)) {
+                ajouter(voisine.getIndice());
+            }
+        }
+    }
+
+    private boolean appartient(Tuile tuile) {
+        int indice = tuile.getIndice();
+        return tuiles != null && indice >= 0 && indice < tuiles.size() && tuiles.get(indice) == tuile;
+    }
+
+    private void ajouter(int indice) {
+        if (positions[indice] < 0) {
+            positions[indice] = taille;
+            indices[taille++] = indice;
+        }
+    }
+
+    private void retirer(int indice) {
+        int position = positions[indice];
+        if (position >= 0) {
+            int dernier = indices[--taille];
+            indices[position] = dernier;
+            positions[dernier] = position;
+            positions[indice] = -1;
+        }
+    }
+
+    public int size() {
+        return taille;
+    }
+
+    /**
+     * @return l'indice de la {@code k}-ième tuile de la frontière
+     */
+    public int get(int k) {
+        return indices[k];
+    }
+
+    public boolean contient(int indice) {
+        return positions[indice] >= 0;
+    }
+}
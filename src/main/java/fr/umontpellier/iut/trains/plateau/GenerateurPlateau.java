@@ -0,0 +1,337 @@
+package fr.umontpellier.iut.trains.plateau;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import fr.umontpellier.iut.graphes.GrapheHexagonal;
+
+/**
+ * Générateur de plateaux synthétiques de taille arbitraire (pour tester le passage à l'échelle).
+ * <p>
+ * Le plateau est une grille hexagonale de même disposition que les plateaux du jeu
+ * ({@link Plateau#placerLigne}). Le type de chaque tuile et la suppression de chaque arête sont tirés
+ * de manière déterministe à partir de la graine et de l'indice de la case : deux générateurs de même
+ * configuration produisent le même plateau, et une tuile peut être produite sans générer les précédentes.
+ * <p>
+ * Les tuiles sont produites ligne par ligne ({@link #tuiles()}) : le générateur ne garde en mémoire
+ * que la ligne courante et la suivante.
+ */
+public class GenerateurPlateau {
+    private static final long SEL_TYPE = 0x5DEECE66DL;
+    private static final long SEL_VALEUR = 0xB5297A4DL;
+    private static final long SEL_ARETE = 0x68E31DA4L;
+
+    private final long graine;
+    private final int nbLignes;
+    private final int largeurLignesPaires;
+    private final int largeurLignesImpaires;
+    private final double proportionVilles;
+    private final double proportionEtoiles;
+    private final double proportionMer;
+    private final double poidsPlaine;
+    private final double poidsMontagne;
+    private final double poidsFleuve;
+    private final double proportionAretesSupprimees;
+
+    private GenerateurPlateau(GenerateurPlateauBuilder builder) {
+        this.graine = builder.graine;
+        this.nbLignes = builder.nbLignes;
+        this.largeurLignesPaires = builder.largeurLignesPaires;
+        this.largeurLignesImpaires = builder.largeurLignesImpaires;
+        this.proportionVilles = builder.proportionVilles;
+        this.proportionEtoiles = builder.proportionEtoiles;
+        this.proportionMer = builder.proportionMer;
+        double poidsTotal = builder.poidsPlaine + builder.poidsMontagne + builder.poidsFleuve;
+        this.poidsPlaine = builder.poidsPlaine / poidsTotal;
+        this.poidsMontagne = builder.poidsMontagne / poidsTotal;
+        this.poidsFleuve = builder.poidsFleuve / poidsTotal;
+        this.proportionAretesSupprimees = builder.proportionAretesSupprimees;
+    }
+
+    public String getNomVille() {
+        return "Synthétique-" + graine;
+    }
+
+    public int getNbLignes() {
+        return nbLignes;
+    }
+
+    public int getLargeurLignesPaires() {
+        return largeurLignesPaires;
+    }
+
+    public int getLargeurLignesImpaires() {
+        return largeurLignesImpaires;
+    }
+
+    /**
+     * @return le nombre total de tuiles du plateau
+     */
+    public int getNbTuiles() {
+        return (nbLignes / 2) * (largeurLignesPaires + largeurLignesImpaires) + (nbLignes % 2) * largeurLignesPaires;
+    }
+
+    private int largeur(int ligne) {
+        return ligne % 2 == 0 ? largeurLignesPaires : largeurLignesImpaires;
+    }
+
+    /**
+     * Mélange de bits de SplitMix64 : renvoie une valeur pseudo-aléatoire uniforme dans [0, 1[
+     * ne dépendant que de la graine, de la clé et du sel.
+     */
+    private double aleatoire(long cle, long sel) {
+        long z = graine + (cle + 1) * 0x9E3779B97F4A7C15L + sel;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (z >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * @return une nouvelle tuile (non reliée) pour la case d'indice {@code i}
+     */
+    public Tuile creerTuile(int i) {
+        double tirage = aleatoire(i, SEL_TYPE);
+        double valeur = aleatoire(i, SEL_VALEUR);
+        if (tirage < proportionMer) {
+            return new TuileMer();
+        }
+        tirage -= proportionMer;
+        if (tirage < proportionVilles) {
+            return new TuileVille(1 + (int) (valeur * 3));
+        }
+        tirage -= proportionVilles;
+        if (tirage < proportionEtoiles) {
+            return new TuileEtoile(2 + (int) (valeur * 3));
+        }
+        if (valeur < poidsPlaine) {
+            return new TuileTerrain(TypeTerrain.PLAINE);
+        }
+        if (valeur < poidsPlaine + poidsMontagne) {
+            return new TuileTerrain(TypeTerrain.MONTAGNE);
+        }
+        return new TuileTerrain(TypeTerrain.FLEUVE);
+    }
+
+    /**
+     * @return true si l'arête entre les cases {@code i} et {@code j} (voisines dans la grille)
+     * est supprimée du plateau
+     */
+    public boolean estAreteSupprimee(int i, int j) {
+        if (proportionAretesSupprimees <= 0) {
+            return false;
+        }
+        long cle = i < j ? ((long) i << 32) | j : ((long) j << 32) | i;
+        return aleatoire(cle, SEL_ARETE) < proportionAretesSupprimees;
+    }
+
+    private int debutLigne(int ligne) {
+        return (ligne / 2) * (largeurLignesPaires + largeurLignesImpaires) + (ligne % 2) * largeurLignesPaires;
+    }
+
+    private Tuile[] creerLigne(int ligne) {
+        Tuile[] tuiles = new Tuile[largeur(ligne)];
+        int debut = debutLigne(ligne);
+        for (int j = 0; j < tuiles.length; j++) {
+            tuiles[j] = creerTuile(debut + j);
+        }
+        return tuiles;
+    }
+
+    /**
+     * Supprime les voisinages tirés au sort entre la ligne {@code ligne} et elle-même ou la ligne suivante
+     * (mêmes voisinages que ceux créés par {@link Plateau#placerLigne}).
+     */
+    private void supprimerAretes(Tuile[] tuiles, Tuile[] tuilesSuivantes, int ligne) {
+        int debut = debutLigne(ligne);
+        int debutSuivante = debutLigne(ligne + 1);
+        for (int j = 0; j < tuiles.length; j++) {
+            if (j + 1 < tuiles.length && estAreteSupprimee(debut + j, debut + j + 1)) {
+                tuiles[j].supprimerVoisine(tuiles[j + 1]);
+            }
+            if (tuilesSuivantes == null) {
+                continue;
+            }
+            if (j < tuilesSuivantes.length && estAreteSupprimee(debut + j, debutSuivante + j)) {
+                tuiles[j].supprimerVoisine(tuilesSuivantes[j]);
+            }
+            int diagonale = ligne % 2 == 0 ? j - 1 : j + 1;
+            if (diagonale >= 0 && diagonale < tuilesSuivantes.length
+                    && estAreteSupprimee(debut + j, debutSuivante + diagonale)) {
+                tuiles[j].supprimerVoisine(tuilesSuivantes[diagonale]);
+            }
+        }
+    }
+
+    /**
+     * @return un flux séquentiel des tuiles du plateau dans l'ordre de lecture. Chaque tuile produite
+     * est déjà reliée à toutes ses voisines (la ligne suivante est générée avant de produire une ligne).
+     */
+    public Stream<Tuile> tuiles() {
+        Iterator<Tuile> iterateur = new Iterator<>() {
+            private int ligne = 0;
+            private int colonne = 0;
+            private Tuile[] courante = nbLignes > 0 ? creerLigne(0) : null;
+            private Tuile[] suivante = nbLignes > 1 ? creerLigne(1) : null;
+
+            {
+                if (courante != null) {
+                    relier();
+                }
+            }
+
+            private void relier() {
+                Plateau.placerLigne(courante, suivante, ligne);
+                supprimerAretes(courante, suivante, ligne);
+            }
+
+            @Override
+            public boolean hasNext() {
+                while (courante != null && colonne >= courante.length) {
+                    ligne++;
+                    colonne = 0;
+                    courante = suivante;
+                    suivante = ligne + 1 < nbLignes ? creerLigne(ligne + 1) : null;
+                    if (courante != null) {
+                        relier();
+                    }
+                }
+                return courante != null;
+            }
+
+            @Override
+            public Tuile next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return courante[colonne++];
+            }
+        };
+        return StreamSupport.stream(
+                Spliterators.spliterator(iterateur, getNbTuiles(), Spliterator.ORDERED | Spliterator.NONNULL),
+                false);
+    }
+
+    /**
+     * @return la liste de toutes les tuiles du plateau (dans l'ordre de lecture)
+     */
+    public List<Tuile> makeTuiles() {
+        return tuiles().toList();
+    }
+
+    /**
+     * @return le graphe hexagonal du plateau, construit directement à partir de la configuration
+     * (sans créer le plateau entier)
+     */
+    public GrapheHexagonal getGrapheHexagonal() {
+        GrapheHexagonal graphe = new GrapheHexagonal(nbLignes, largeurLignesPaires, largeurLignesImpaires);
+        for (int ligne = 0; ligne < nbLignes; ligne++) {
+            int debut = debutLigne(ligne);
+            for (int j = 0; j < largeur(ligne); j++) {
+                int i = debut + j;
+                Tuile tuile = creerTuile(i);
+                if (tuile.estMer()) {
+                    graphe.ajouterMer(i);
+                }
+                graphe.setSurcout(i, tuile.getSurcout());
+                int droite = graphe.getIndice(ligne, j + 1);
+                int bas = graphe.getIndice(ligne + 1, j);
+                int diagonale = graphe.getIndice(ligne + 1, ligne % 2 == 0 ? j - 1 : j + 1);
+                for (int voisin : new int[]{droite, bas, diagonale}) {
+                    if (voisin >= 0 && estAreteSupprimee(i, voisin)) {
+                        graphe.supprimerArete(i, voisin);
+                    }
+                }
+            }
+        }
+        return graphe;
+    }
+
+    public static class GenerateurPlateauBuilder {
+        private long graine = 0;
+        private int nbLignes = 8;
+        private int largeurLignesPaires = 10;
+        private int largeurLignesImpaires = 9;
+        private double proportionVilles = 0.35;
+        private double proportionEtoiles = 0.1;
+        private double proportionMer = 0.1;
+        private double poidsPlaine = 1;
+        private double poidsMontagne = 1;
+        private double poidsFleuve = 1;
+        private double proportionAretesSupprimees = 0;
+
+        public GenerateurPlateauBuilder setGraine(long graine) {
+            this.graine = graine;
+            return this;
+        }
+
+        public GenerateurPlateauBuilder setNbLignes(int nbLignes) {
+            this.nbLignes = nbLignes;
+            return this;
+        }
+
+        /**
+         * Fixe la largeur des lignes paires (les lignes impaires ont une tuile de moins, comme dans le jeu)
+         */
+        public GenerateurPlateauBuilder setLargeur(int largeur) {
+            this.largeurLignesPaires = largeur;
+            this.largeurLignesImpaires = largeur - 1;
+            return this;
+        }
+
+        public GenerateurPlateauBuilder setLargeurLignesImpaires(int largeurLignesImpaires) {
+            this.largeurLignesImpaires = largeurLignesImpaires;
+            return this;
+        }
+
+        public GenerateurPlateauBuilder setProportionVilles(double proportionVilles) {
+            this.proportionVilles = proportionVilles;
+            return this;
+        }
+
+        public GenerateurPlateauBuilder setProportionEtoiles(double proportionEtoiles) {
+            this.proportionEtoiles = proportionEtoiles;
+            return this;
+        }
+
+        public GenerateurPlateauBuilder setProportionMer(double proportionMer) {
+            this.proportionMer = proportionMer;
+            return this;
+        }
+
+        /**
+         * Fixe les poids relatifs des types de terrain parmi les tuiles qui ne sont ni des villes,
+         * ni des lieux éloignés, ni des tuiles mer
+         */
+        public GenerateurPlateauBuilder setPoidsTerrains(double plaine, double montagne, double fleuve) {
+            this.poidsPlaine = plaine;
+            this.poidsMontagne = montagne;
+            this.poidsFleuve = fleuve;
+            return this;
+        }
+
+        public GenerateurPlateauBuilder setProportionAretesSupprimees(double proportionAretesSupprimees) {
+            this.proportionAretesSupprimees = proportionAretesSupprimees;
+            return this;
+        }
+
+        public GenerateurPlateau createGenerateurPlateau() {
+            if (nbLignes < 0 || largeurLignesPaires < 1 || largeurLignesImpaires < 1) {
+                throw new IllegalArgumentException("Dimensions de plateau invalides");
+            }
+            if (proportionVilles < 0 || proportionEtoiles < 0 || proportionMer < 0
+                    || proportionVilles + proportionEtoiles + proportionMer > 1) {
+                throw new IllegalArgumentException("Les proportions de tuiles doivent être positives et de somme au plus 1");
+            }
+            if (poidsPlaine < 0 || poidsMontagne < 0 || poidsFleuve < 0 || poidsPlaine + poidsMontagne + poidsFleuve <= 0) {
+                throw new IllegalArgumentException("Poids de terrains invalides");
+            }
+            return new GenerateurPlateau(this);
+        }
+    }
+}
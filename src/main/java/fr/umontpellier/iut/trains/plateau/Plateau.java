@@ -22,6 +22,26 @@ public enum Plateau {
         };
     }
 
+    /**
+     * @return le nombre de tuiles des lignes paires du plateau (la première ligne est la ligne 0)
+     */
+    public int getLargeurLignesPaires() {
+        return switch (this) {
+            case OSAKA, TOKYO -> 10;
+            case TEST -> 3;
+        };
+    }
+
+    /**
+     * @return le nombre de tuiles des lignes impaires du plateau
+     */
+    public int getLargeurLignesImpaires() {
+        return switch (this) {
+            case OSAKA, TOKYO -> 9;
+            case TEST -> 3;
+        };
+    }
+
     private static List<Tuile> makeTuilesOsaka() {
         Tuile[][] array = new Tuile[][] {
                 new Tuile[] {
@@ -159,20 +179,31 @@ public enum Plateau {
 
     private static void placerTuiles(Tuile[][] array) {
         for (int i = 0; i < array.length; i++) {
-            for (int j = 0; j < array[i].length; j++) {
-                if (j + 1 < array[i].length) {  // voisine de droite
-                    array[i][j].ajouterVoisine(array[i][j + 1]);
+            placerLigne(array[i], i + 1 < array.length ? array[i + 1] : null, i);
+        }
+    }
+
+    /**
+     * Relie les tuiles de la ligne {@code i} entre elles et avec les tuiles de la ligne suivante
+     *
+     * @param ligne          tuiles de la ligne {@code i}
+     * @param ligneSuivante  tuiles de la ligne {@code i + 1} ou {@code null} s'il s'agit de la dernière ligne
+     * @param i              numéro de la ligne (la disposition dépend de sa parité)
+     */
+    static void placerLigne(Tuile[] ligne, Tuile[] ligneSuivante, int i) {
+        for (int j = 0; j < ligne.length; j++) {
+            if (j + 1 < ligne.length) {  // voisine de droite
+                ligne[j].ajouterVoisine(ligne[j + 1]);
+            }
+            if (ligneSuivante != null) {
+                if (j < ligneSuivante.length) { // voisine du bas
+                    ligne[j].ajouterVoisine(ligneSuivante[j]);
+                }
+                if (i % 2 == 0 && j > 0 && j - 1 < ligneSuivante.length) {  // voisine bas-gauche (ligne paire)
+                    ligne[j].ajouterVoisine(ligneSuivante[j - 1]);
                 }
-                if (i + 1 < array.length) {
-                    if (j < array[i + 1].length) { // voisine du bas
-                        array[i][j].ajouterVoisine(array[i + 1][j]);
-                    }
-                    if (i % 2 == 0 && j > 0) {  // voisine bas-gauche (ligne paire)
-                        array[i][j].ajouterVoisine(array[i + 1][j - 1]);
-                    }
-                    if (i % 2 == 1 && j + 1 < array[i + 1].length) {    // voisine bas-droite (ligne impaire)
-                        array[i][j].ajouterVoisine(array[i + 1][j + 1]);
-                    }
+                if (i % 2 == 1 && j + 1 < ligneSuivante.length) {    // voisine bas-droite (ligne impaire)
+                    ligne[j].ajouterVoisine(ligneSuivante[j + 1]);
                 }
             }
         }
@@ -1,45 +1,159 @@
 package fr.umontpellier.iut.trains.plateau;
 
+import java.io.IOException;
 import java.util.*;
 
+import com.google.gson.stream.JsonWriter;
+
+import fr.umontpellier.iut.trains.Jeu;
+import fr.umontpellier.iut.trains.JournalActions;
 import fr.umontpellier.iut.trains.Joueur;
 import fr.umontpellier.iut.trains.cartes.EffetTour;
 
 public abstract class Tuile {
     private ArrayList<Tuile> voisines;
-    private Set<Joueur> rails;
+    /**
+     * Ensemble des joueurs ayant un rail sur la tuile, sous forme de masque de bits
+     * (le bit {@code j} vaut 1 si le joueur de rang {@code j} a un rail sur la tuile)
+     */
+    private int rails;
+    /**
+     * Joueurs de la partie (pour retrouver les joueurs à partir de leur rang), connus au premier rail posé
+     */
+    private List<Joueur> joueurs;
+    /**
+     * Indice de la tuile dans la liste des tuiles de la partie (-1 tant qu'il n'est pas connu)
+     */
+    private int indice = -1;
 
     public Tuile() {
         this.voisines = new ArrayList<>();
-        this.rails = new HashSet<>();
+        this.rails = 0;
+    }
+
+    public int getIndice() {
+        return indice;
+    }
+
+    void setIndice(int indice) {
+        this.indice = indice;
     }
 
     public boolean estMer(){
         return false;
     };
 
+    /**
+     * @return une vue (non modifiable) de l'ensemble des joueurs ayant un rail sur la tuile
+     */
     public Set<Joueur> getRails(){
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Joueur> iterator() {
+                return new Iterator<>() {
+                    private int restants = rails;
+
+                    @Override
+                    public boolean hasNext() {
+                        return restants != 0;
+                    }
+
+                    @Override
+                    public Joueur next() {
+                        if (restants == 0) {
+                            throw new NoSuchElementException();
+                        }
+                        int rang = Integer.numberOfTrailingZeros(restants);
+                        restants &= restants - 1;
+                        return joueurs.get(rang);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return Integer.bitCount(rails);
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Joueur joueur && hasRail(joueur);
+            }
+        };
+    }
+
+    /**
+     * @return l'ensemble des joueurs ayant un rail sur la tuile, sous forme de masque de bits
+     * (le bit {@code j} vaut 1 si le joueur de rang {@code j} a un rail sur la tuile)
+     */
+    public int getMasqueRails() {
         return rails;
     }
 
+    private static int masque(Joueur joueur) {
+        return 1 << joueur.getRang();
+    }
+
     // Utilisée dans les tests
     public boolean estVide() {
-        return rails.isEmpty();
+        return rails == 0;
     }
 
     // Utilisée dans les tests
     public boolean hasRail(Joueur joueur) {
-        return rails.contains(joueur);
+        return (rails & masque(joueur)) != 0;
     }
 
     public void ajouterRail(Joueur joueur) {
-        rails.add(joueur);
+        Jeu jeu = joueur.getJeu();
+        JournalActions journal = jeu.getJournal();
+        boolean nouveau = !hasRail(joueur);
+        if (journal != null) {
+            int railsAvant = rails;
+            journal.enregistrer(() -> {
+                rails = railsAvant;
+                if (nouveau) {
+                    joueur.ajouterPointsVictoireTuiles(-getNbPointsVictoire());
+                    joueur.ajouterTuilesReseau(-1);
+                }
+                joueur.getFrontiere().invalider();
+                jeu.signalerModificationTuile(this);
+            }, () -> ajouterRail(joueur));
+        }
+        Frontiere frontiere = joueur.getFrontiere();
+        rails |= masque(joueur);
+        joueurs = jeu.getJoueurs();
+        if (nouveau) {
+            joueur.ajouterPointsVictoireTuiles(getNbPointsVictoire());
+            joueur.ajouterTuilesReseau(1);
+        }
+        frontiere.mettreAJour(this, joueur);
+        jeu.signalerModificationTuile(this);
     }
 
     public void ajouterGare() {
         throw new UnsupportedOperationException("Impossible d'ajouter une gare sur cette tuile");
     }
 
+    /**
+     * Retire une gare de la tuile (annulation de {@link #ajouterGare()})
+     */
+    public void retirerGare() {
+        throw new UnsupportedOperationException("Aucune gare à retirer sur cette tuile");
+    }
+
+    /**
+     * Ajoute {@code points} aux points de victoire des tuiles de chaque joueur ayant un rail sur la tuile
+     * (à appeler lorsque la valeur de la tuile change)
+     */
+    protected void repartirPointsVictoire(int points) {
+        if (points != 0) {
+            for (Joueur joueur : getRails()) {
+                joueur.ajouterPointsVictoireTuiles(points);
+            }
+        }
+    }
+
     public boolean peutPlacerGare() {
         return false;
     }
@@ -65,11 +179,11 @@ public abstract class Tuile {
         if (joueur.hasEffet(EffetTour.COOPERATION)) {
             return 0;
         }
-        return rails.size();
+        return Integer.bitCount(rails);
     }
     
     public int getSurcout(){
-        return rails.size();
+        return Integer.bitCount(rails);
     }
 
     /**
@@ -86,11 +200,20 @@ public abstract class Tuile {
     }
 
     public boolean peutPlacerRail(Joueur joueur) {
-        if (rails.contains(joueur))
+        return estAccessible(joueur) && joueur.getArgent() >= getSurcout(joueur);
+    }
+
+    /**
+     * @return vrai si la tuile est voisine du réseau du joueur sans en faire partie (le joueur peut alors y
+     * poser un rail s'il peut payer le surcoût)
+     */
+    public boolean estAccessible(Joueur joueur) {
+        int masque = masque(joueur);
+        if ((rails & masque) != 0)
             return false;
         for (Tuile tuile : voisines) {
-            if (tuile.rails.contains(joueur)) {
-                return joueur.getArgent() >= getSurcout(joueur);
+            if ((tuile.rails & masque) != 0) {
+                return true;
             }
         }
         return false;
@@ -102,7 +225,7 @@ public abstract class Tuile {
 
     public Map<String, Object> dataMap() {
         Map<String, Object> map = new HashMap<>();
-        map.put("rails", rails.stream().map(Joueur::getCouleur).toArray());
+        map.put("rails", getRails().stream().map(Joueur::getCouleur).toArray());
         int nbGares = getNbGares();
         if (nbGares > 0) {
             map.put("nbGares", nbGares);
@@ -110,8 +233,25 @@ public abstract class Tuile {
         return map;
     }
 
+    /**
+     * Écrit la représentation JSON de la tuile (la même que celle de {@link #dataMap()}) dans {@code json}
+     */
+    public void ecrireJson(JsonWriter json) throws IOException {
+        json.beginObject();
+        json.name("rails").beginArray();
+        for (Joueur joueur : getRails()) {
+            json.value(joueur.getCouleur().name());
+        }
+        json.endArray();
+        int nbGares = getNbGares();
+        if (nbGares > 0) {
+            json.name("nbGares").value(nbGares);
+        }
+        json.endObject();
+    }
+
     public void onConstruitRail(Joueur joueur) {
-        if (!rails.isEmpty() && !joueur.hasEffet(EffetTour.COOPERATION)) {
+        if (rails != 0 && !joueur.hasEffet(EffetTour.COOPERATION)) {
             joueur.recevoirFerraille();
         }
     }
@@ -119,4 +259,57 @@ public abstract class Tuile {
     public List<Tuile> getVoisines() {
         return voisines;
     }
+
+    /**
+     * @return une nouvelle tuile de même nature et dans le même état (gares) que this, sans rails ni voisines
+     */
+    protected abstract Tuile creerCopie();
+
+    /**
+     * Calcule les voisinages d'un plateau sous forme d'indices : {@code voisines[i]} contient les indices
+     * (dans {@code tuiles}) des voisines de la tuile {@code i}.
+     */
+    public static int[][] calculerIndicesVoisines(List<Tuile> tuiles) {
+        Map<Tuile, Integer> indices = new IdentityHashMap<>();
+        for (int i = 0; i < tuiles.size(); i++) {
+            indices.put(tuiles.get(i), i);
+        }
+        int[][] voisines = new int[tuiles.size()][];
+        for (int i = 0; i < tuiles.size(); i++) {
+            List<Tuile> voisinesTuile = tuiles.get(i).voisines;
+            voisines[i] = new int[voisinesTuile.size()];
+            for (int k = 0; k < voisinesTuile.size(); k++) {
+                voisines[i][k] = indices.get(voisinesTuile.get(k));
+            }
+        }
+        return voisines;
+    }
+
+    /**
+     * Copie un plateau : les tuiles sont copiées avec leurs rails et leurs gares, et reliées entre elles
+     * comme les tuiles d'origine.
+     *
+     * @param tuiles          les tuiles à copier
+     * @param indicesVoisines les voisinages des tuiles, calculés par {@link #calculerIndicesVoisines(List)}
+     * @param joueurs         les joueurs de la partie à laquelle appartient la copie (même ordre que les
+     *                        joueurs de la partie d'origine)
+     */
+    public static List<Tuile> copierTuiles(List<Tuile> tuiles, int[][] indicesVoisines, List<Joueur> joueurs) {
+        Tuile[] copies = new Tuile[tuiles.size()];
+        for (int i = 0; i < copies.length; i++) {
+            Tuile tuile = tuiles.get(i);
+            copies[i] = tuile.creerCopie();
+            copies[i].indice = i;
+            copies[i].rails = tuile.rails;
+            copies[i].joueurs = joueurs;
+        }
+        for (int i = 0; i < copies.length; i++) {
+            ArrayList<Tuile> voisinesCopie = new ArrayList<>(indicesVoisines[i].length);
+            for (int j : indicesVoisines[i]) {
+                voisinesCopie.add(copies[j]);
+            }
+            copies[i].voisines = voisinesCopie;
+        }
+        return Arrays.asList(copies);
+    }
 }
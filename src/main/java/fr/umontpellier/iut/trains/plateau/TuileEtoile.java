@@ -33,4 +33,9 @@ public class TuileEtoile extends Tuile {
     public int getNbPointsVictoire() {
         return valeur;
     }
+
+    @Override
+    protected Tuile creerCopie() {
+        return new TuileEtoile(valeur);
+    }
 }
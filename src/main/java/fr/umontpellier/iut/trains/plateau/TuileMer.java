@@ -13,7 +13,7 @@ public class TuileMer extends Tuile {
     }
 
     @Override
-    public boolean peutPlacerRail(Joueur joueur) {
+    public boolean estAccessible(Joueur joueur) {
         return false;
     }
 
@@ -21,4 +21,9 @@ public class TuileMer extends Tuile {
     public boolean peutEtrePositionDepart() {
         return false;
     }
+
+    @Override
+    protected Tuile creerCopie() {
+        return new TuileMer();
+    }
 }
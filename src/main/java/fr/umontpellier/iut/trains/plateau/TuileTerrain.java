@@ -24,4 +24,8 @@ public class TuileTerrain extends Tuile {
         return type.getSurcout() + super.getSurcout();
     }
 
+    @Override
+    protected Tuile creerCopie() {
+        return new TuileTerrain(type);
+    }
 }
@@ -28,7 +28,16 @@ public class TuileVille extends Tuile {
 
     @Override
     public void ajouterGare() {
+        int pointsAvant = getNbPointsVictoire();
         nbGaresPosees += 1;
+        repartirPointsVictoire(getNbPointsVictoire() - pointsAvant);
+    }
+
+    @Override
+    public void retirerGare() {
+        int pointsAvant = getNbPointsVictoire();
+        nbGaresPosees -= 1;
+        repartirPointsVictoire(getNbPointsVictoire() - pointsAvant);
     }
 
     @Override
@@ -61,4 +70,9 @@ public class TuileVille extends Tuile {
             default -> 0;
         };
     }
+
+    @Override
+    protected Tuile creerCopie() {
+        return new TuileVille(nbGaresMax, nbGaresPosees);
+    }
 }
@@ -0,0 +1,41 @@
+package fr.umontpellier.iut.trains.simulation;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import fr.umontpellier.iut.trains.DecideurActions;
+import fr.umontpellier.iut.trains.Joueur;
+import fr.umontpellier.iut.trains.ListeActions;
+
+/**
+ * Décideur qui choisit uniformément au hasard parmi les choix valides (les actions de la boucle principale
+ * du tour sont choisies sous forme codée, sans construire de chaînes de caractères)
+ */
+public class DecideurAleatoire implements DecideurActions {
+    private final SplittableRandom random;
+
+    public DecideurAleatoire() {
+        this.random = new SplittableRandom();
+    }
+
+    public DecideurAleatoire(long graine) {
+        this.random = new SplittableRandom(graine);
+    }
+
+    /**
+     * @param random générateur utilisé pour les choix (par exemple obtenu par {@code Jeu.creerGenerateur()})
+     */
+    public DecideurAleatoire(SplittableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public String choisir(Joueur joueur, String instruction, List<String> choix) {
+        return choix.get(random.nextInt(choix.size()));
+    }
+
+    @Override
+    public int choisirAction(Joueur joueur, ListeActions actions) {
+        return actions.get(random.nextInt(actions.size()));
+    }
+}
@@ -0,0 +1,552 @@
+package fr.umontpellier.iut.trains.simulation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import fr.umontpellier.iut.trains.Decideur;
+import fr.umontpellier.iut.trains.Jeu;
+import fr.umontpellier.iut.trains.Joueur;
+
+/**
+ * Décideur fondé sur une recherche arborescente Monte-Carlo (MCTS, sélection par la formule UCT).
+ * <p>
+ * Au premier choix d'un tour, le décideur copie la partie réelle dans une partie silencieuse. Pour chaque
+ * décision, il joue ensuite des simulations sur des copies de cet état de début de tour :
+ * <ol>
+ * <li>les choix déjà faits pendant le tour sont rejoués ;</li>
+ * <li>l'ordre des pioches de tous les joueurs est tiré au hasard (déterminisation : un joueur ne connaît pas
+ * l'ordre de sa pioche) ;</li>
+ * <li>l'arbre est parcouru depuis la décision en cours, en ajoutant un nouveau nœud ;</li>
+ * <li>la partie est poursuivie par des choix aléatoires pendant au plus {@code horizon} tours ;</li>
+ * <li>chaque joueur en tête à la fin de la simulation reçoit une part égale d'une victoire, reportée sur les
+ * nœuds parcourus (chaque nœud est évalué du point de vue du joueur qui a fait le choix correspondant).</li>
+ * </ol>
+ * L'arbre est « en boucle ouverte » : un nœud représente une suite de choix depuis le début du tour, et seuls
+ * les fils valides dans la simulation en cours sont considérés. Il est conservé entre les décisions d'un même
+ * tour : le sous-arbre du choix fait devient la racine de la décision suivante.
+ * <p>
+ * Les simulations peuvent être réparties sur plusieurs threads (ceux d'un exécuteur propre au décideur) : une
+ * perte virtuelle est alors ajoutée aux nœuds en cours d'exploration pour que les threads explorent des
+ * branches différentes. L'arbre est protégé par un verrou unique, pris le temps de chaque opération sur les
+ * nœuds (les simulations elles-mêmes se déroulent hors du verrou).
+ * <p>
+ * Les positions de départ, ainsi que les choix demandés pendant le tour d'un joueur qui n'est pas contrôlé
+ * par ce décideur, sont choisis au hasard.
+ */
+public class DecideurMCTS implements Decideur {
+    private final int nbSimulations;
+    private final long dureeMax;
+    private final int horizon;
+    private final double constanteExploration;
+    private final int nbThreads;
+    private final int perteVirtuelle;
+    private final SplittableRandom random;
+
+    /**
+     * Partie réelle et numéro du tour auxquels correspond {@link #debutTour}
+     */
+    private Jeu jeuReel;
+    private int tourCourant;
+    /**
+     * Copie de la partie réelle au début du tour en cours ({@code null} si aucune recherche n'est possible)
+     */
+    private JeuSilencieux debutTour;
+    /**
+     * {@code controles[r]} est vrai si le joueur de rang {@code r} de la partie réelle utilise ce décideur
+     */
+    private boolean[] controles;
+    /**
+     * Choix faits par ce décideur depuis le début du tour
+     */
+    private final List<ChoixFait> prefixe;
+    /**
+     * Nœud de l'arbre correspondant à la décision en cours
+     */
+    private Noeud racine;
+    /**
+     * Verrou de l'arbre de recherche : toutes les lectures et écritures des nœuds se font en le détenant
+     */
+    private final Object verrouArbre;
+    /**
+     * Exécuteur de la recherche parallèle (créé à la première recherche si {@code nbThreads > 1})
+     */
+    private ExecutorService executeur;
+    private final AtomicInteger nbSimulationsAbandonnees;
+
+    private DecideurMCTS(DecideurMCTSBuilder builder, SplittableRandom random) {
+        this.nbSimulations = builder.nbSimulations;
+        this.dureeMax = builder.dureeMax;
+        this.horizon = builder.horizon;
+        this.constanteExploration = builder.constanteExploration;
+        this.nbThreads = builder.nbThreads;
+        this.perteVirtuelle = builder.perteVirtuelle;
+        this.random = random;
+        this.prefixe = new ArrayList<>();
+        this.verrouArbre = new Object();
+        this.nbSimulationsAbandonnees = new AtomicInteger();
+    }
+
+    /**
+     * @return le nombre de simulations abandonnées parce que les choix du tour n'ont pas pu être rejoués
+     */
+    public int getNbSimulationsAbandonnees() {
+        return nbSimulationsAbandonnees.get();
+    }
+
+    @Override
+    public String choisir(Joueur joueur, String instruction, List<String> choix) {
+        Jeu jeu = joueur.getJeu();
+        if (jeu != jeuReel || jeu.getNbTours() != tourCourant) {
+            commencerTour(joueur);
+        }
+        if (debutTour == null) {
+            return choix.get(random.nextInt(choix.size()));
+        }
+
+        if (choix.size() > 1) {
+            rechercher(joueur.getRang());
+        }
+        String meilleur = null;
+        synchronized (verrouArbre) {
+            int maxVisites = 0;
+            for (String c : choix) {
+                int nbVisites = racine.getNbVisites(c);
+                if (nbVisites > maxVisites) {
+                    meilleur = c;
+                    maxVisites = nbVisites;
+                }
+            }
+            if (meilleur == null) {
+                meilleur = choix.get(random.nextInt(choix.size()));
+            }
+            racine = racine.getFils(meilleur, joueur.getRang());
+        }
+
+        prefixe.add(new ChoixFait(joueur.getRang(), meilleur));
+        return meilleur;
+    }
+
+    /**
+     * Prépare la recherche pour un nouveau tour : copie la partie si c'est possible, et crée un nouvel arbre
+     */
+    private void commencerTour(Joueur joueur) {
+        Jeu jeu = joueur.getJeu();
+        jeuReel = jeu;
+        tourCourant = jeu.getNbTours();
+        prefixe.clear();
+        racine = new Noeud(-1);
+        // La copie rejoue le tour depuis le début : elle n'est possible que si c'est le premier choix du tour,
+        // c'est-à-dire le premier choix du joueur courant (hors choix des positions de départ, faits avant que
+        // le joueur n'ait de rail)
+        boolean estPositionDepart = joueur.getNbTuilesReseau() == 0;
+        if (joueur != jeu.getJoueurCourant() || estPositionDepart) {
+            debutTour = null;
+            jeuReel = null;
+            return;
+        }
+        debutTour = new JeuSilencieux(jeu, random.nextLong());
+        controles = new boolean[jeu.getJoueurs().size()];
+        for (Joueur j : jeu.getJoueurs()) {
+            controles[j.getRang()] = j.getDecideur() == this;
+        }
+    }
+
+    /**
+     * Joue les simulations pour la décision en cours (jusqu'à épuisement du budget)
+     *
+     * @param rang le rang du joueur qui doit choisir
+     */
+    private void rechercher(int rang) {
+        long fin = dureeMax > 0 ? System.nanoTime() + dureeMax * 1_000_000 : Long.MAX_VALUE;
+        AtomicInteger restantes = new AtomicInteger(nbSimulations > 0 ? nbSimulations : Integer.MAX_VALUE);
+        List<ChoixFait> prefixeCourant = List.copyOf(prefixe);
+        Noeud racineCourante = racine;
+
+        if (nbThreads <= 1) {
+            SplittableRandom generateur = random.split();
+            while (restantes.getAndDecrement() > 0 && System.nanoTime() < fin) {
+                simuler(prefixeCourant, racineCourante, rang, generateur);
+            }
+            return;
+        }
+
+        if (executeur == null) {
+            executeur = Executors.newFixedThreadPool(nbThreads, tache -> {
+                Thread thread = new Thread(tache, "DecideurMCTS");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        AtomicReference<RuntimeException> erreur = new AtomicReference<>();
+        List<Future<?>> taches = new ArrayList<>();
+        for (int i = 0; i < nbThreads; i++) {
+            SplittableRandom generateur = random.split();
+            taches.add(executeur.submit(() -> {
+                try {
+                    while (restantes.getAndDecrement() > 0 && System.nanoTime() < fin) {
+                        simuler(prefixeCourant, racineCourante, rang, generateur);
+                    }
+                } catch (RuntimeException e) {
+                    erreur.compareAndSet(null, e);
+                    restantes.set(0);
+                }
+            }));
+        }
+        boolean interrompu = false;
+        for (Future<?> tache : taches) {
+            while (!tache.isDone()) {
+                try {
+                    tache.get();
+                } catch (InterruptedException e) {
+                    // arrête la recherche au plus vite et garde les simulations déjà faites
+                    restantes.set(0);
+                    interrompu = true;
+                } catch (ExecutionException e) {
+                    // les erreurs sont récupérées dans la tâche
+                }
+            }
+        }
+        if (interrompu) {
+            Thread.currentThread().interrupt();
+        }
+        if (erreur.get() != null) {
+            throw erreur.get();
+        }
+    }
+
+    /**
+     * Arrête les threads de la recherche parallèle (le décideur peut encore être utilisé : ils seront recréés
+     * si nécessaire)
+     */
+    public void fermer() {
+        if (executeur != null) {
+            executeur.shutdown();
+            executeur = null;
+        }
+    }
+
+    /**
+     * Joue une simulation sur une copie de l'état de début de tour et reporte son résultat dans l'arbre
+     */
+    private void simuler(List<ChoixFait> prefixeCourant, Noeud racineCourante, int rang, SplittableRandom generateur) {
+        JeuSilencieux copie = new JeuSilencieux(debutTour, generateur.nextLong());
+        if (horizon > 0) {
+            copie.setNbToursMax(Math.min(copie.getNbToursMax(), tourCourant + horizon));
+        }
+        Simulation simulation = new Simulation(copie, prefixeCourant, racineCourante, rang, generateur);
+        copie.setDecideur(simulation);
+        ResultatPartie resultat = copie.terminer();
+        if (simulation.abandonnee) {
+            simulation.retirerPertesVirtuelles();
+            nbSimulationsAbandonnees.incrementAndGet();
+            return;
+        }
+
+        int[] scores = resultat.scores();
+        int scoreMax = resultat.getScoreMax();
+        int nbGagnants = 0;
+        for (int score : scores) {
+            if (score == scoreMax) {
+                nbGagnants++;
+            }
+        }
+        double[] gains = new double[scores.length];
+        for (int i = 0; i < scores.length; i++) {
+            gains[i] = scores[i] == scoreMax ? 1.0 / nbGagnants : 0;
+        }
+        simulation.retropropager(gains);
+    }
+
+    /**
+     * Décideur utilisé par tous les joueurs d'une copie pendant une simulation
+     */
+    private class Simulation implements Decideur {
+        private final JeuSilencieux copie;
+        private final List<ChoixFait> prefixeCourant;
+        private final int rang;
+        private final SplittableRandom generateur;
+        private int indicePrefixe;
+        /**
+         * Nœuds parcourus depuis la racine de la décision en cours (vide tant que le rejeu n'est pas terminé)
+         */
+        private final List<Noeud> chemin;
+        private Noeud noeud;
+        /**
+         * Vrai si les choix du tour n'ont pas pu être rejoués (par exemple parce qu'une pioche a été mélangée
+         * différemment) : la copie est alors arrêtée à la fin du tour en cours et son résultat est ignoré
+         */
+        private boolean abandonnee;
+
+        private Simulation(JeuSilencieux copie, List<ChoixFait> prefixeCourant, Noeud racineCourante, int rang,
+                SplittableRandom generateur) {
+            this.copie = copie;
+            this.prefixeCourant = prefixeCourant;
+            this.rang = rang;
+            this.generateur = generateur;
+            this.chemin = new ArrayList<>();
+            this.noeud = racineCourante;
+        }
+
+        @Override
+        public String choisir(Joueur joueur, String instruction, List<String> choix) {
+            if (abandonnee) {
+                return finirTour(choix);
+            }
+            if (chemin.isEmpty()) {
+                // rejeu des choix du tour jusqu'à la décision en cours
+                if (copie.getNbTours() != tourCourant) {
+                    return abandonner(choix);
+                }
+                if (!controles[joueur.getRang()]) {
+                    // choix inconnu (fait par un autre décideur dans la partie réelle)
+                    return choix.get(generateur.nextInt(choix.size()));
+                }
+                if (indicePrefixe < prefixeCourant.size()) {
+                    ChoixFait fait = prefixeCourant.get(indicePrefixe++);
+                    if (fait.rang() != joueur.getRang() || !choix.contains(fait.choix())) {
+                        return abandonner(choix);
+                    }
+                    return fait.choix();
+                }
+                if (joueur.getRang() != rang) {
+                    return abandonner(choix);
+                }
+                for (Joueur j : copie.getJoueurs()) {
+                    j.getPioche().melanger(generateur);
+                }
+                chemin.add(noeud);
+                synchronized (verrouArbre) {
+                    noeud.visiter();
+                }
+            }
+            if (noeud == null) {
+                // hors de l'arbre : choix aléatoire
+                return choix.get(generateur.nextInt(choix.size()));
+            }
+            Noeud fils;
+            synchronized (verrouArbre) {
+                fils = noeud.selectionner(choix, joueur.getRang(), constanteExploration, perteVirtuelle, generateur);
+                noeud = fils.estNouveau() ? null : fils;
+            }
+            chemin.add(fils);
+            return fils.choix;
+        }
+
+        /**
+         * Abandonne la simulation : la copie s'arrête à la fin du tour en cours
+         */
+        private String abandonner(List<String> choix) {
+            abandonnee = true;
+            copie.setNbToursMax(0);
+            return finirTour(choix);
+        }
+
+        /**
+         * @return le choix qui termine le plus vite le tour d'une simulation abandonnée (passer si c'est
+         * possible, un choix aléatoire sinon)
+         */
+        private String finirTour(List<String> choix) {
+            return choix.contains("") ? "" : choix.get(generateur.nextInt(choix.size()));
+        }
+
+        private void retropropager(double[] gains) {
+            synchronized (verrouArbre) {
+                for (Noeud n : chemin) {
+                    n.mettreAJour(gains, perteVirtuelle);
+                }
+            }
+        }
+
+        private void retirerPertesVirtuelles() {
+            synchronized (verrouArbre) {
+                for (Noeud n : chemin) {
+                    n.mettreAJour(null, perteVirtuelle);
+                }
+            }
+        }
+    }
+
+    private record ChoixFait(int rang, String choix) {
+    }
+
+    /**
+     * Nœud de l'arbre de recherche (les méthodes ne sont pas synchronisées : elles doivent être appelées en
+     * détenant le verrou de l'arbre)
+     */
+    private static class Noeud {
+        /**
+         * Rang du joueur qui a fait le choix menant à ce nœud (-1 pour une racine)
+         */
+        private final int rang;
+        private final String choix;
+        private final Map<String, Noeud> fils;
+        private int nbVisites;
+        private double gains;
+        /**
+         * Nombre de simulations en cours passant par ce nœud
+         */
+        private int nbEnCours;
+
+        private Noeud(int rang) {
+            this(rang, null);
+        }
+
+        private Noeud(int rang, String choix) {
+            this.rang = rang;
+            this.choix = choix;
+            this.fils = new HashMap<>();
+        }
+
+        int getNbVisites(String choix) {
+            Noeud n = fils.get(choix);
+            return n == null ? 0 : n.nbVisites;
+        }
+
+        /**
+         * @return le fils correspondant au choix {@code choix} (créé s'il n'existe pas)
+         */
+        Noeud getFils(String choix, int rang) {
+            return fils.computeIfAbsent(choix, c -> new Noeud(rang, c));
+        }
+
+        boolean estNouveau() {
+            return nbVisites == 0 && nbEnCours == 1;
+        }
+
+        void visiter() {
+            nbEnCours++;
+        }
+
+        /**
+         * Choisit le fils à explorer parmi les choix valides : un choix jamais exploré s'il en reste (tiré au
+         * hasard), le fils de plus grande valeur UCT sinon. Le fils choisi reçoit une perte virtuelle.
+         * <p>
+         * Sans perte virtuelle, un fils en cours d'exploration mais encore jamais visité n'a pas de valeur UCT :
+         * il est alors traité comme un choix jamais exploré.
+         */
+        Noeud selectionner(List<String> choix, int rang, double constanteExploration,
+                int perteVirtuelle, SplittableRandom generateur) {
+            List<String> inexplores = new ArrayList<>();
+            Noeud meilleur = null;
+            double valeurMax = Double.NEGATIVE_INFINITY;
+            double logVisites = Math.log(Math.max(1, nbVisites + perteVirtuelle * nbEnCours));
+            for (String c : choix) {
+                Noeud n = fils.get(c);
+                double visites = n == null ? 0 : n.nbVisites + perteVirtuelle * n.nbEnCours;
+                if (visites == 0) {
+                    inexplores.add(c);
+                } else if (inexplores.isEmpty()) {
+                    double valeur = n.gains / visites + constanteExploration * Math.sqrt(logVisites / visites);
+                    if (valeur > valeurMax) {
+                        meilleur = n;
+                        valeurMax = valeur;
+                    }
+                }
+            }
+            if (!inexplores.isEmpty()) {
+                meilleur = getFils(inexplores.get(generateur.nextInt(inexplores.size())), rang);
+            }
+            meilleur.nbEnCours++;
+            return meilleur;
+        }
+
+        /**
+         * Retire la perte virtuelle et, si {@code gains} n'est pas {@code null}, compte la visite
+         */
+        void mettreAJour(double[] gains, int perteVirtuelle) {
+            nbEnCours--;
+            if (gains != null) {
+                nbVisites++;
+                if (rang >= 0) {
+                    this.gains += gains[rang];
+                }
+            }
+        }
+    }
+
+    public static class DecideurMCTSBuilder {
+        private int nbSimulations = 200;
+        private long dureeMax = 0;
+        private int horizon = 20;
+        private double constanteExploration = Math.sqrt(2);
+        private int nbThreads = 1;
+        private int perteVirtuelle = 1;
+        private SplittableRandom random;
+
+        /**
+         * Fixe le nombre de simulations jouées pour chaque décision (0 pour ne limiter que la durée)
+         */
+        public DecideurMCTSBuilder setNbSimulations(int nbSimulations) {
+            this.nbSimulations = nbSimulations;
+            return this;
+        }
+
+        /**
+         * Fixe la durée maximale (en millisecondes) de la recherche pour chaque décision (0 pour ne limiter que
+         * le nombre de simulations)
+         */
+        public DecideurMCTSBuilder setDureeMax(long dureeMax) {
+            this.dureeMax = dureeMax;
+            return this;
+        }
+
+        /**
+         * Fixe le nombre maximal de tours joués par une simulation après le tour en cours (0 pour jouer les
+         * simulations jusqu'à la fin de la partie)
+         */
+        public DecideurMCTSBuilder setHorizon(int horizon) {
+            this.horizon = horizon;
+            return this;
+        }
+
+        public DecideurMCTSBuilder setConstanteExploration(double constanteExploration) {
+            this.constanteExploration = constanteExploration;
+            return this;
+        }
+
+        public DecideurMCTSBuilder setNbThreads(int nbThreads) {
+            this.nbThreads = nbThreads;
+            return this;
+        }
+
+        /**
+         * Fixe le nombre de défaites virtuelles comptées pour chaque simulation en cours passant par un nœud
+         * (utilisé uniquement par la recherche parallèle)
+         */
+        public DecideurMCTSBuilder setPerteVirtuelle(int perteVirtuelle) {
+            this.perteVirtuelle = perteVirtuelle;
+            return this;
+        }
+
+        public DecideurMCTSBuilder setGraine(long graine) {
+            this.random = new SplittableRandom(graine);
+            return this;
+        }
+
+        public DecideurMCTS createDecideurMCTS() {
+            return createDecideurMCTS(random != null ? random : new SplittableRandom());
+        }
+
+        /**
+         * @param random générateur utilisé par le décideur (par exemple fourni par un {@link Tournoi})
+         */
+        public DecideurMCTS createDecideurMCTS(SplittableRandom random) {
+            if (nbSimulations <= 0 && dureeMax <= 0) {
+                throw new IllegalArgumentException("Le nombre de simulations ou la durée de recherche doit être limité");
+            }
+            if (nbThreads < 1 || perteVirtuelle < 0 || horizon < 0) {
+                throw new IllegalArgumentException("Paramètres de recherche invalides");
+            }
+            return new DecideurMCTS(this, random);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package fr.umontpellier.iut.trains.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import fr.umontpellier.iut.trains.Bouton;
+import fr.umontpellier.iut.trains.Decideur;
+import fr.umontpellier.iut.trains.Jeu;
+import fr.umontpellier.iut.trains.Joueur;
+import fr.umontpellier.iut.trains.cartes.FabriqueListeDeCartes;
+import fr.umontpellier.iut.trains.cartes.ListeDeCartes;
+import fr.umontpellier.iut.trains.plateau.Plateau;
+import fr.umontpellier.iut.trains.plateau.Tuile;
+
+/**
+ * Partie sans entrées/sorties, destinée aux simulations en grand nombre.
+ * <p>
+ * Tous les choix des joueurs sont faits par des {@link Decideur} : rien n'est affiché, l'entrée standard
+ * n'est jamais lue et le log est désactivé (voir {@link #setTailleMaxLog(int)}). La partie s'arrête au plus
+ * tard après {@link #getNbToursMax()} tours. Les piles de la réserve sont des
+ * {@link fr.umontpellier.iut.trains.cartes.PileReserve} (une seule instance de chaque carte et un compteur).
+ */
+public class JeuSilencieux extends Jeu {
+    /**
+     * Nombre de tours maximal par défaut (une partie entre joueurs raisonnables dure bien moins longtemps)
+     */
+    public static final int NB_TOURS_MAX = 1000;
+
+    private int nbToursMax;
+
+    public JeuSilencieux(String[] nomsJoueurs, String[] cartesPreparation, Plateau plateau) {
+        super(nomsJoueurs, cartesPreparation, plateau);
+        initialiser();
+    }
+
+    public JeuSilencieux(String[] nomsJoueurs, String[] cartesPreparation, Plateau plateau, long graine) {
+        super(nomsJoueurs, cartesPreparation, plateau, graine);
+        initialiser();
+    }
+
+    public JeuSilencieux(String[] nomsJoueurs, String[] cartesPreparation, String nomVille, List<Tuile> tuiles) {
+        super(nomsJoueurs, cartesPreparation, nomVille, tuiles);
+        initialiser();
+    }
+
+    public JeuSilencieux(String[] nomsJoueurs, String[] cartesPreparation, String nomVille, List<Tuile> tuiles,
+            long graine) {
+        super(nomsJoueurs, cartesPreparation, nomVille, tuiles, graine);
+        initialiser();
+    }
+
+    /**
+     * Constructeur par recopie (voir {@link Jeu#Jeu(Jeu, long)}). La partie copiée peut être une partie
+     * quelconque (par exemple une partie interactive) : la copie est silencieuse, et son nombre de tours
+     * maximal est celui de {@code autre} si c'est une partie silencieuse, {@link #NB_TOURS_MAX} sinon.
+     */
+    public JeuSilencieux(Jeu autre, long graine) {
+        super(autre, graine);
+        initialiser();
+        if (autre instanceof JeuSilencieux silencieux) {
+            this.nbToursMax = silencieux.nbToursMax;
+        }
+    }
+
+    @Override
+    public JeuSilencieux copier() {
+        return new JeuSilencieux(this, tirerGraine());
+    }
+
+    @Override
+    protected ListeDeCartes creerPileReserve(String nomCarte, int nombre) {
+        return FabriqueListeDeCartes.creerPileReserve(nomCarte, nombre);
+    }
+
+    private void initialiser() {
+        nbToursMax = NB_TOURS_MAX;
+        setTailleMaxLog(0);
+    }
+
+    public int getNbToursMax() {
+        return nbToursMax;
+    }
+
+    public void setNbToursMax(int nbToursMax) {
+        this.nbToursMax = nbToursMax;
+    }
+
+    /**
+     * Fixe le même décideur pour tous les joueurs de la partie
+     */
+    public void setDecideur(Decideur decideur) {
+        for (Joueur joueur : getJoueurs()) {
+            joueur.setDecideur(decideur);
+        }
+    }
+
+    @Override
+    public boolean estFini() {
+        return getNbTours() >= nbToursMax || super.estFini();
+    }
+
+    @Override
+    public void prompt(String instruction, List<Bouton> boutons, boolean peutPasser) {
+    }
+
+    @Override
+    public String lireLigne() {
+        throw new IllegalStateException("Partie silencieuse : le joueur " + getJoueurCourant().getNom()
+                + " n'a pas de décideur");
+    }
+
+    /**
+     * Joue la partie jusqu'à la fin et renvoie son résultat
+     */
+    public ResultatPartie jouer() {
+        run();
+        return getResultat();
+    }
+
+    /**
+     * Joue les tours restants à partir de l'état courant (par exemple sur une copie de partie)
+     * et renvoie le résultat de la partie
+     */
+    public ResultatPartie terminer() {
+        jouerTours();
+        return getResultat();
+    }
+
+    private ResultatPartie getResultat() {
+        List<String> noms = new ArrayList<>();
+        int[] scores = new int[getJoueurs().size()];
+        for (int i = 0; i < scores.length; i++) {
+            Joueur joueur = getJoueurs().get(i);
+            noms.add(joueur.getNom());
+            scores[i] = joueur.getScoreTotal();
+        }
+        return new ResultatPartie(noms, scores, getNbTours(), !super.estFini());
+    }
+}
@@ -0,0 +1,37 @@
+package fr.umontpellier.iut.trains.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Résultat d'une partie simulée
+ *
+ * @param noms        noms des joueurs, dans l'ordre de jeu
+ * @param scores      scores totaux des joueurs (même ordre que {@code noms})
+ * @param nbTours     nombre de tours joués
+ * @param interrompue {@code true} si la partie a été arrêtée par la limite de tours avant une condition de fin
+ */
+public record ResultatPartie(List<String> noms, int[] scores, int nbTours, boolean interrompue) {
+
+    public int getScoreMax() {
+        int max = Integer.MIN_VALUE;
+        for (int score : scores) {
+            max = Math.max(max, score);
+        }
+        return max;
+    }
+
+    /**
+     * @return les positions (dans l'ordre de jeu) des joueurs ayant le meilleur score
+     */
+    public List<Integer> getGagnants() {
+        int max = getScoreMax();
+        List<Integer> gagnants = new ArrayList<>();
+        for (int i = 0; i < scores.length; i++) {
+            if (scores[i] == max) {
+                gagnants.add(i);
+            }
+        }
+        return gagnants;
+    }
+}
@@ -0,0 +1,88 @@
+package fr.umontpellier.iut.trains.simulation;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Statistiques cumulées d'un participant sur l'ensemble des parties d'un tournoi
+ */
+public class StatistiquesJoueur {
+    private final String nom;
+    private int nbParties;
+    /**
+     * Nombre de victoires (une victoire partagée entre {@code k} joueurs compte pour {@code 1/k})
+     */
+    private double nbVictoires;
+    private long sommeScores;
+    private long sommeCarresScores;
+    private int scoreMin = Integer.MAX_VALUE;
+    private int scoreMax = Integer.MIN_VALUE;
+    /**
+     * Nombre de parties pour chaque score obtenu
+     */
+    private final TreeMap<Integer, Integer> distributionScores = new TreeMap<>();
+
+    public StatistiquesJoueur(String nom) {
+        this.nom = nom;
+    }
+
+    void ajouterPartie(int score, double victoire) {
+        nbParties++;
+        nbVictoires += victoire;
+        sommeScores += score;
+        sommeCarresScores += (long) score * score;
+        scoreMin = Math.min(scoreMin, score);
+        scoreMax = Math.max(scoreMax, score);
+        distributionScores.merge(score, 1, Integer::sum);
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    public int getNbParties() {
+        return nbParties;
+    }
+
+    public double getNbVictoires() {
+        return nbVictoires;
+    }
+
+    public double getTauxVictoire() {
+        return nbParties == 0 ? 0 : nbVictoires / nbParties;
+    }
+
+    public double getScoreMoyen() {
+        return nbParties == 0 ? 0 : (double) sommeScores / nbParties;
+    }
+
+    public double getEcartTypeScore() {
+        if (nbParties == 0) {
+            return 0;
+        }
+        double moyenne = getScoreMoyen();
+        return Math.sqrt(Math.max(0, (double) sommeCarresScores / nbParties - moyenne * moyenne));
+    }
+
+    public int getScoreMin() {
+        return scoreMin;
+    }
+
+    public int getScoreMax() {
+        return scoreMax;
+    }
+
+    /**
+     * @return pour chaque score obtenu, le nombre de parties (par score croissant)
+     */
+    public Map<Integer, Integer> getDistributionScores() {
+        return Collections.unmodifiableMap(distributionScores);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s : %d parties, %.1f%% de victoires, score %.1f ± %.1f [%d, %d]", nom, nbParties,
+                100 * getTauxVictoire(), getScoreMoyen(), getEcartTypeScore(), scoreMin, scoreMax);
+    }
+}
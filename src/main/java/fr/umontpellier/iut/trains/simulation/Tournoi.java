@@ -0,0 +1,215 @@
+package fr.umontpellier.iut.trains.simulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import fr.umontpellier.iut.trains.CouleurJoueur;
+import fr.umontpellier.iut.trains.Decideur;
+import fr.umontpellier.iut.trains.cartes.FabriqueListeDeCartes;
+import fr.umontpellier.iut.trains.cartes.ListeDeCartes;
+import fr.umontpellier.iut.trains.plateau.Plateau;
+
+/**
+ * Tournoi entre joueurs automatiques : de nombreuses parties silencieuses indépendantes sont jouées
+ * en parallèle sur un ensemble de threads.
+ * <p>
+ * Les parties sont regroupées en séries : toutes les parties d'une même série utilisent le même ensemble
+ * de cartes préparation (tiré parmi {@link FabriqueListeDeCartes#getNomsCartesPreparation()}), et l'ordre
+ * des joueurs est décalé d'une place à chaque partie de la série pour que chaque participant occupe
+ * chaque place.
+ * <p>
+ * Le tournoi est entièrement déterminé par sa graine : la graine de chaque partie en est dérivée, et les
+ * décideurs reçoivent un générateur dérivé de celui de leur partie.
+ */
+public class Tournoi {
+    private final Map<String, Function<SplittableRandom, Decideur>> participants;
+    private final int nbParties;
+    private final int nbJoueursParPartie;
+    private final int nbCartesPreparation;
+    private final Plateau plateau;
+    private final int nbToursMax;
+    private final int nbThreads;
+    private final long graine;
+    /**
+     * Graines des tirages des cartes préparation de chaque série, dérivées de {@link #graine}
+     */
+    private final long[] grainesSeries;
+
+    private Tournoi(TournoiBuilder builder) {
+        this.participants = new LinkedHashMap<>(builder.participants);
+        this.nbParties = builder.nbParties;
+        this.nbJoueursParPartie = builder.nbJoueursParPartie > 0 ? builder.nbJoueursParPartie : participants.size();
+        this.nbCartesPreparation = builder.nbCartesPreparation;
+        this.plateau = builder.plateau;
+        this.nbToursMax = builder.nbToursMax;
+        this.nbThreads = builder.nbThreads;
+        this.graine = builder.graine;
+        this.grainesSeries = new long[(nbParties + participants.size() - 1) / participants.size()];
+        SplittableRandom generateur = new SplittableRandom(graine);
+        for (int serie = 0; serie < grainesSeries.length; serie++) {
+            grainesSeries[serie] = generateur.split().nextLong();
+        }
+    }
+
+    /**
+     * @return les noms des participants assis à la partie {@code numero}, dans l'ordre de jeu
+     */
+    List<String> getPlaces(int numero) {
+        List<String> noms = new ArrayList<>(participants.keySet());
+        List<String> places = new ArrayList<>();
+        for (int k = 0; k < nbJoueursParPartie; k++) {
+            places.add(noms.get((numero + k) % noms.size()));
+        }
+        return places;
+    }
+
+    /**
+     * @return les cartes préparation de la partie {@code numero} (les mêmes pour toutes les parties d'une série)
+     */
+    String[] getCartesPreparation(int numero) {
+        int serie = numero / participants.size();
+        List<String> cartes = new ArrayList<>(FabriqueListeDeCartes.getNomsCartesPreparation());
+        Collections.sort(cartes);
+        ListeDeCartes.melanger(cartes, new SplittableRandom(grainesSeries[serie]));
+        return cartes.subList(0, nbCartesPreparation).toArray(new String[0]);
+    }
+
+    private ResultatPartie jouerPartie(int numero, long grainePartie) {
+        List<String> places = getPlaces(numero);
+        JeuSilencieux jeu = new JeuSilencieux(places.toArray(new String[0]), getCartesPreparation(numero), plateau,
+                grainePartie);
+        jeu.setNbToursMax(nbToursMax);
+        for (int i = 0; i < places.size(); i++) {
+            jeu.getJoueurs().get(i).setDecideur(participants.get(places.get(i)).apply(jeu.creerGenerateur()));
+        }
+        return jeu.jouer();
+    }
+
+    /**
+     * Joue toutes les parties du tournoi et renvoie les statistiques de chaque participant
+     * (dans l'ordre d'inscription des participants)
+     */
+    public List<StatistiquesJoueur> jouer() {
+        ExecutorService executeur = Executors.newFixedThreadPool(nbThreads);
+        try {
+            List<Future<ResultatPartie>> parties = new ArrayList<>();
+            SplittableRandom graines = new SplittableRandom(graine);
+            for (int numero = 0; numero < nbParties; numero++) {
+                int n = numero;
+                long grainePartie = graines.nextLong();
+                parties.add(executeur.submit(() -> jouerPartie(n, grainePartie)));
+            }
+
+            Map<String, StatistiquesJoueur> statistiques = new LinkedHashMap<>();
+            for (String nom : participants.keySet()) {
+                statistiques.put(nom, new StatistiquesJoueur(nom));
+            }
+            for (Future<ResultatPartie> partie : parties) {
+                ResultatPartie resultat = partie.get();
+                List<Integer> gagnants = resultat.getGagnants();
+                for (int i = 0; i < resultat.scores().length; i++) {
+                    double victoire = gagnants.contains(i) ? 1.0 / gagnants.size() : 0;
+                    statistiques.get(resultat.noms().get(i)).ajouterPartie(resultat.scores()[i], victoire);
+                }
+            }
+            return new ArrayList<>(statistiques.values());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Tournoi interrompu", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Erreur pendant une partie du tournoi", e.getCause());
+        } finally {
+            executeur.shutdownNow();
+        }
+    }
+
+    public static class TournoiBuilder {
+        private final Map<String, Function<SplittableRandom, Decideur>> participants = new LinkedHashMap<>();
+        private int nbParties = 100;
+        private int nbJoueursParPartie = 0;
+        private int nbCartesPreparation = 8;
+        private Plateau plateau = Plateau.OSAKA;
+        private int nbToursMax = JeuSilencieux.NB_TOURS_MAX;
+        private int nbThreads = Runtime.getRuntime().availableProcessors();
+        private long graine = 0;
+
+        /**
+         * Inscrit un participant au tournoi
+         *
+         * @param nom      nom (unique) du participant
+         * @param decideur fabrique des décideurs du participant : un nouveau décideur est créé pour chaque partie,
+         *                 à partir d'un générateur pseudo-aléatoire dérivé de la graine de la partie
+         */
+        public TournoiBuilder ajouterParticipant(String nom, Function<SplittableRandom, Decideur> decideur) {
+            participants.put(nom, decideur);
+            return this;
+        }
+
+        public TournoiBuilder setNbParties(int nbParties) {
+            this.nbParties = nbParties;
+            return this;
+        }
+
+        /**
+         * Fixe le nombre de joueurs de chaque partie (par défaut, tous les participants jouent chaque partie)
+         */
+        public TournoiBuilder setNbJoueursParPartie(int nbJoueursParPartie) {
+            this.nbJoueursParPartie = nbJoueursParPartie;
+            return this;
+        }
+
+        public TournoiBuilder setNbCartesPreparation(int nbCartesPreparation) {
+            this.nbCartesPreparation = nbCartesPreparation;
+            return this;
+        }
+
+        public TournoiBuilder setPlateau(Plateau plateau) {
+            this.plateau = plateau;
+            return this;
+        }
+
+        public TournoiBuilder setNbToursMax(int nbToursMax) {
+            this.nbToursMax = nbToursMax;
+            return this;
+        }
+
+        public TournoiBuilder setNbThreads(int nbThreads) {
+            this.nbThreads = nbThreads;
+            return this;
+        }
+
+        public TournoiBuilder setGraine(long graine) {
+            this.graine = graine;
+            return this;
+        }
+
+        public Tournoi createTournoi() {
+            if (participants.isEmpty()) {
+                throw new IllegalArgumentException("Le tournoi n'a aucun participant");
+            }
+            int nbMax = CouleurJoueur.values().length;
+            if (nbJoueursParPartie > participants.size() || nbJoueursParPartie > nbMax) {
+                throw new IllegalArgumentException("Nombre de joueurs par partie invalide : " + nbJoueursParPartie);
+            }
+            if (nbJoueursParPartie == 0 && participants.size() > nbMax) {
+                throw new IllegalArgumentException("Au plus " + nbMax + " joueurs par partie");
+            }
+            if (nbCartesPreparation < 0 || nbCartesPreparation > FabriqueListeDeCartes.getNomsCartesPreparation().size()) {
+                throw new IllegalArgumentException("Nombre de cartes préparation invalide : " + nbCartesPreparation);
+            }
+            if (nbParties < 0 || nbThreads < 1) {
+                throw new IllegalArgumentException("Nombre de parties ou de threads invalide");
+            }
+            return new Tournoi(this);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package fr.umontpellier.iut.trains;
+
+import fr.umontpellier.iut.trains.cartes.FabriqueListeDeCartes;
+import fr.umontpellier.iut.trains.plateau.Plateau;
+import fr.umontpellier.iut.trains.simulation.DecideurAleatoire;
+import fr.umontpellier.iut.trains.simulation.JeuSilencieux;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ActionTest {
+
+    @Test
+    void test_conversion_choix() {
+        for (String choix : new String[]{"", "Ferraille", "Gare", "Train omnibus", "TUILE:12", "ACHAT:Gare"}) {
+            assertEquals(choix, Action.versChoix(Action.depuisChoix(choix)));
+        }
+        int achat = Action.depuisChoix("ACHAT:Gare");
+        assertEquals(Action.TYPE_ACHETER, Action.getType(achat));
+        assertEquals(FabriqueListeDeCartes.getIdentifiant("Gare"), Action.getArgument(achat));
+        assertEquals(Action.poserRail(12), Action.depuisChoix("TUILE:12"));
+        assertThrows(IllegalArgumentException.class, () -> Action.depuisChoix("ACHAT:Licorne"));
+    }
+
+    @Test
+    void test_identifiants_cartes() {
+        for (int i = 0; i < FabriqueListeDeCartes.getNbCartes(); i++) {
+            assertEquals(i, FabriqueListeDeCartes.getIdentifiant(FabriqueListeDeCartes.getNomCarte(i)));
+        }
+        assertEquals(-1, FabriqueListeDeCartes.getIdentifiant("Licorne"));
+    }
+
+    @Test
+    void test_actions_possibles() {
+        JeuSilencieux jeu = new JeuSilencieux(new String[]{"Lois", "Clark"}, new String[]{}, Plateau.OSAKA, 12);
+        jeu.setDecideur(new DecideurAleatoire(4));
+        jeu.setNbToursMax(6);
+        jeu.run();
+        Joueur joueur = jeu.getJoueurCourant();
+        joueur.getMain().clear();
+        joueur.ajouterMain(FabriqueListeDeCartes.creerListeDeCartes("Train omnibus", 2).get(0));
+        joueur.ajouterMain(FabriqueListeDeCartes.creerListeDeCartes("Train omnibus", 1).get(0));
+        joueur.ajouterMain(FabriqueListeDeCartes.creerListeDeCartes("Ferraille", 1).get(0));
+
+        ListeActions actions = new ListeActions();
+        joueur.remplirActionsPossibles(actions);
+        // hors du tour du joueur : pas de recyclage, ni argent ni points de rail
+        assertTrue(actions.contient(Action.PASSER));
+        assertTrue(actions.contient(Action.jouer(FabriqueListeDeCartes.getIdentifiant("Train omnibus"))));
+        assertFalse(actions.contient(Action.jouer(FabriqueListeDeCartes.getIdentifiant("Ferraille"))));
+        assertEquals(2, actions.size());
+
+        assertFalse(joueur.appliquerAction(Action.jouer(FabriqueListeDeCartes.getIdentifiant("Train omnibus"))));
+        assertEquals(1, joueur.getArgent());
+        assertEquals(2, joueur.getMain().size());
+        assertTrue(joueur.appliquerAction(Action.PASSER));
+    }
+}
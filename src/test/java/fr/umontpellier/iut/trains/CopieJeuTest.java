@@ -0,0 +1,50 @@
+package fr.umontpellier.iut.trains;
+
+import fr.umontpellier.iut.trains.plateau.Tuile;
+import fr.umontpellier.iut.trains.simulation.JeuSilencieux;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CopieJeuTest {
+
+    private JeuSilencieux partieEnCours() {
+        return Utils.partieEnCours(new String[]{"Dépôt", "Train de marchandises"}, 20);
+    }
+
+    @Test
+    void test_copie_identique() {
+        JeuSilencieux jeu = partieEnCours();
+        JeuSilencieux copie = jeu.copier();
+
+        assertEquals(Utils.etat(jeu), Utils.etat(copie));
+        assertEquals(jeu.getNbTours(), copie.getNbTours());
+        assertEquals(jeu.getNbToursMax(), copie.getNbToursMax());
+        assertSame(copie, copie.getJoueurs().get(0).getJeu());
+        assertSame(jeu.getJoueurs().get(0).getMain().get(0), copie.getJoueurs().get(0).getMain().get(0));
+
+        List<Tuile> tuiles = copie.getTuiles();
+        for (int i = 0; i < tuiles.size(); i++) {
+            assertEquals(jeu.getTuile(i).getVoisines().size(), tuiles.get(i).getVoisines().size());
+            for (Tuile voisine : tuiles.get(i).getVoisines()) {
+                assertTrue(tuiles.contains(voisine));
+                assertFalse(jeu.getTuiles().contains(voisine));
+            }
+        }
+    }
+
+    @Test
+    void test_copie_independante() {
+        JeuSilencieux jeu = partieEnCours();
+        String avant = Utils.etat(jeu);
+
+        JeuSilencieux copie = jeu.copier();
+        copie.setNbToursMax(60);
+        copie.terminer();
+
+        assertNotEquals(avant, Utils.etat(copie));
+        assertEquals(avant, Utils.etat(jeu));
+    }
+}
@@ -0,0 +1,66 @@
+package fr.umontpellier.iut.trains;
+
+import fr.umontpellier.iut.trains.plateau.Plateau;
+import fr.umontpellier.iut.trains.simulation.DecideurAleatoire;
+import fr.umontpellier.iut.trains.simulation.DecideurMCTS;
+import fr.umontpellier.iut.trains.simulation.JeuSilencieux;
+import fr.umontpellier.iut.trains.simulation.ResultatPartie;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DecideurMCTSTest {
+
+    private DecideurMCTS.DecideurMCTSBuilder builder() {
+        return new DecideurMCTS.DecideurMCTSBuilder().setNbSimulations(20).setHorizon(2).setGraine(7);
+    }
+
+    private ResultatPartie jouer(DecideurMCTS decideur) {
+        JeuSilencieux jeu = new JeuSilencieux(new String[]{"Lois", "Clark"},
+                new String[]{"Dépôt", "Train de marchandises", "Gare"}, Plateau.OSAKA, 2024);
+        jeu.setDecideur(new DecideurAleatoire(3));
+        jeu.getJoueurs().get(0).setDecideur(decideur);
+        jeu.setNbToursMax(6);
+        return jeu.jouer();
+    }
+
+    @Test
+    void test_partie_complete() {
+        DecideurMCTS decideur = builder().createDecideurMCTS();
+        ResultatPartie resultat = jouer(decideur);
+        assertEquals(6, resultat.nbTours());
+        assertEquals(0, decideur.getNbSimulationsAbandonnees());
+    }
+
+    @Test
+    void test_meme_graine_memes_choix() {
+        ResultatPartie premier = jouer(builder().createDecideurMCTS());
+        ResultatPartie second = jouer(builder().createDecideurMCTS());
+        assertArrayEquals(premier.scores(), second.scores());
+    }
+
+    @Test
+    void test_recherche_parallele() {
+        DecideurMCTS decideur = builder().setNbThreads(3).setPerteVirtuelle(2).createDecideurMCTS();
+        assertEquals(6, jouer(decideur).nbTours());
+        decideur.fermer();
+        // les threads sont recréés pour la recherche suivante
+        assertEquals(6, jouer(decideur).nbTours());
+        decideur.fermer();
+    }
+
+    @Test
+    void test_recherche_parallele_sans_perte_virtuelle() {
+        DecideurMCTS decideur = builder().setNbSimulations(200).setNbThreads(8).setPerteVirtuelle(0)
+                .createDecideurMCTS();
+        assertEquals(6, jouer(decideur).nbTours());
+        decideur.fermer();
+    }
+
+    @Test
+    void test_budget_invalide() {
+        assertThrows(IllegalArgumentException.class,
+                () -> builder().setNbSimulations(0).setDureeMax(0).createDecideurMCTS());
+        assertThrows(IllegalArgumentException.class, () -> builder().setNbThreads(0).createDecideurMCTS());
+    }
+}
@@ -0,0 +1,37 @@
+package fr.umontpellier.iut.trains;
+
+import fr.umontpellier.iut.trains.cartes.EffetTour;
+import fr.umontpellier.iut.trains.plateau.Plateau;
+import fr.umontpellier.iut.trains.simulation.JeuSilencieux;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EffetsTourTest {
+
+    @Test
+    void test_ajouter_compter_et_annuler() {
+        JeuSilencieux jeu = new JeuSilencieux(new String[]{"Lois", "Clark"}, new String[]{}, Plateau.OSAKA, 3);
+        Joueur joueur = jeu.getJoueurs().get(0);
+        JournalActions journal = jeu.activerJournal();
+        int pointDeControle = journal.getPointDeControle();
+
+        joueur.ajouterEffet(EffetTour.FERRONNERIE);
+        joueur.ajouterEffet(EffetTour.TUNNEL);
+        joueur.ajouterEffet(EffetTour.FERRONNERIE);
+        assertTrue(joueur.hasEffet(EffetTour.FERRONNERIE));
+        assertTrue(joueur.hasEffet(EffetTour.TUNNEL));
+        assertFalse(joueur.hasEffet(EffetTour.VIADUC));
+        assertEquals(2, joueur.nbEffet(EffetTour.FERRONNERIE));
+
+        Joueur copie = jeu.copier().getJoueurs().get(0);
+        assertEquals(2, copie.nbEffet(EffetTour.FERRONNERIE));
+
+        journal.annuler();
+        assertEquals(1, joueur.nbEffet(EffetTour.FERRONNERIE));
+        journal.annulerJusqua(pointDeControle);
+        assertFalse(joueur.hasEffet(EffetTour.FERRONNERIE));
+        assertFalse(joueur.hasEffet(EffetTour.TUNNEL));
+        assertEquals(2, copie.nbEffet(EffetTour.FERRONNERIE));
+    }
+}
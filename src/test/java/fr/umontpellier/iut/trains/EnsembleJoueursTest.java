@@ -0,0 +1,48 @@
+package fr.umontpellier.iut.trains;
+
+import fr.umontpellier.iut.graphes.EnsembleJoueurs;
+import fr.umontpellier.iut.trains.plateau.Plateau;
+import fr.umontpellier.iut.trains.plateau.Tuile;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EnsembleJoueursTest {
+
+    @Test
+    void test_operations_ensemblistes() {
+        EnsembleJoueurs joueurs = new EnsembleJoueurs(List.of(0, 3));
+        assertEquals(0b1001, joueurs.getMasque());
+        assertTrue(joueurs.add(5));
+        assertFalse(joueurs.add(3));
+        assertFalse(joueurs.add(null));
+        assertEquals(Set.of(0, 3, 5), joueurs);
+        assertTrue(joueurs.remove(0));
+        assertFalse(joueurs.contains(0));
+        assertFalse(joueurs.contains(null));
+
+        EnsembleJoueurs autres = new EnsembleJoueurs(List.of(1));
+        autres.union(joueurs);
+        assertEquals(Set.of(1, 3, 5), autres);
+        assertThrows(IllegalArgumentException.class, () -> autres.add(64));
+    }
+
+    @Test
+    void test_rails_de_tuile() {
+        Jeu jeu = new Jeu(new String[]{"Lois", "Clark", "Bruce"}, new String[]{}, Plateau.OSAKA);
+        Joueur lois = jeu.getJoueurs().get(0);
+        Joueur bruce = jeu.getJoueurs().get(2);
+        Tuile tuile = jeu.getTuile(12);
+
+        tuile.ajouterRail(bruce);
+        tuile.ajouterRail(lois);
+        assertEquals(0b101, tuile.getMasqueRails());
+        assertEquals(2, tuile.getRails().size());
+        assertEquals(Set.of(lois, bruce), tuile.getRails());
+        assertFalse(tuile.hasRail(jeu.getJoueurs().get(1)));
+        assertEquals(Set.of(0, 2), jeu.getGraphe().getSommet(12).getJoueurs());
+    }
+}
@@ -0,0 +1,91 @@
+package fr.umontpellier.iut.trains;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import fr.umontpellier.iut.gui.DiffJson;
+import fr.umontpellier.iut.gui.EtatsVersionnes;
+import fr.umontpellier.iut.trains.plateau.Plateau;
+import fr.umontpellier.iut.trains.simulation.DecideurAleatoire;
+import fr.umontpellier.iut.trains.simulation.JeuSilencieux;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EtatsVersionnesTest {
+    private static final Gson GSON = new Gson();
+
+    private JsonElement etat(Jeu jeu) {
+        return GSON.toJsonTree(jeu.dataMap());
+    }
+
+    @Test
+    void test_diff_puis_appliquer_sur_une_partie() {
+        JeuSilencieux jeu = new JeuSilencieux(new String[]{"Lois", "Clark"}, new String[]{"Dépôt"}, Plateau.OSAKA, 5);
+        jeu.setTailleMaxLog(10);
+        jeu.setDecideur(new DecideurAleatoire(5));
+        JsonElement avant = etat(jeu);
+        int tailleEtats = 0;
+        int tailleDifferences = 0;
+        for (int tours = 1; tours <= 30; tours++) {
+            jeu.setNbToursMax(tours);
+            jeu.jouerTours();
+            JsonElement apres = etat(jeu);
+            JsonArray patch = DiffJson.diff(avant, apres);
+            assertEquals(apres, DiffJson.appliquer(avant, patch));
+            tailleEtats += GSON.toJson(apres).length();
+            tailleDifferences += GSON.toJson(patch).length();
+            avant = apres;
+        }
+        assertTrue(2 * tailleDifferences < tailleEtats, tailleDifferences + " / " + tailleEtats);
+    }
+
+    @Test
+    void test_decalage_du_log() {
+        JsonArray log = new JsonArray();
+        for (String ligne : new String[]{"a", "b", "c", "d", "e", "f"}) {
+            log.add("<div class=\"log\">Tour de <b>" + ligne + "</b> : achète <i>Train express</i></div>");
+        }
+        JsonObject avant = new JsonObject();
+        avant.add("log", new JsonArray());
+        avant.add("x/y", new JsonPrimitive(1));
+        JsonObject apres = avant.deepCopy();
+        apres.add("x/y", new JsonPrimitive(2));
+        for (int i = 0; i < 4; i++) {
+            avant.getAsJsonArray("log").add(log.get(i));
+            apres.getAsJsonArray("log").add(log.get(i + 2));
+        }
+        JsonArray patch = DiffJson.diff(avant, apres);
+        assertEquals(5, patch.size());
+        assertEquals("/x~1y", patch.get(4).getAsJsonObject().get("path").getAsString());
+        assertEquals(apres, DiffJson.appliquer(avant, patch));
+        assertEquals(0, DiffJson.diff(apres, apres.deepCopy()).size());
+    }
+
+    @Test
+    void test_messages_selon_la_version_acquittee() {
+        EtatsVersionnes etats = new EtatsVersionnes(2);
+        assertNull(etats.getMessage(0));
+        JsonElement v1 = JsonParser.parseString("{\"a\":1,\"b\":[1,2]}");
+        JsonElement v2 = JsonParser.parseString("{\"a\":1,\"b\":[1,2,3]}");
+        JsonElement v3 = JsonParser.parseString("{\"a\":2,\"b\":[1,2,3]}");
+        etats.publier(v1);
+        etats.publier(v2);
+        assertEquals(v2.toString(), etats.getTexteEtat());
+
+        JsonObject complet = JsonParser.parseString(etats.getMessage(0)).getAsJsonObject();
+        assertEquals(2, complet.get("version").getAsInt());
+        assertEquals(v2, complet.get("etat"));
+        JsonObject differences = JsonParser.parseString(etats.getMessage(1)).getAsJsonObject();
+        assertEquals(1, differences.get("depuis").getAsInt());
+        assertEquals(v2, DiffJson.appliquer(v1, differences.getAsJsonArray("patch")));
+        assertNull(etats.getMessage(2));
+
+        etats.publier(v3);
+        assertTrue(JsonParser.parseString(etats.getMessage(1)).getAsJsonObject().has("etat"));
+        assertTrue(JsonParser.parseString(etats.getMessage(2)).getAsJsonObject().has("patch"));
+    }
+}
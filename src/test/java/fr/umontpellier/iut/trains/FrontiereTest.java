@@ -0,0 +1,74 @@
+package fr.umontpellier.iut.trains;
+
+import fr.umontpellier.iut.trains.plateau.Frontiere;
+import fr.umontpellier.iut.trains.plateau.Plateau;
+import fr.umontpellier.iut.trains.plateau.Tuile;
+import fr.umontpellier.iut.trains.simulation.DecideurAleatoire;
+import fr.umontpellier.iut.trains.simulation.JeuSilencieux;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrontiereTest {
+
+    private void verifierFrontieres(Jeu jeu) {
+        List<Tuile> tuiles = jeu.getTuiles();
+        for (Joueur joueur : jeu.getJoueurs()) {
+            Set<Integer> attendue = new HashSet<>();
+            for (int i = 0; i < tuiles.size(); i++) {
+                if (tuiles.get(i).estAccessible(joueur)) {
+                    attendue.add(i);
+                }
+            }
+            Frontiere frontiere = joueur.getFrontiere();
+            Set<Integer> obtenue = new HashSet<>();
+            for (int k = 0; k < frontiere.size(); k++) {
+                obtenue.add(frontiere.get(k));
+                assertTrue(frontiere.contient(frontiere.get(k)));
+            }
+            assertEquals(attendue, obtenue);
+            assertEquals(attendue.size(), frontiere.size());
+        }
+    }
+
+    private JeuSilencieux partie(int nbTours) {
+        JeuSilencieux jeu = new JeuSilencieux(new String[]{"Lois", "Clark"}, new String[]{"Pont en acier"},
+                Plateau.TOKYO, 8);
+        jeu.setDecideur(new DecideurAleatoire(8));
+        jeu.setNbToursMax(nbTours);
+        jeu.run();
+        return jeu;
+    }
+
+    @Test
+    void test_frontiere_mise_a_jour() {
+        JeuSilencieux jeu = partie(40);
+        assertTrue(jeu.getJoueurs().get(0).getFrontiere().size() > 0);
+        verifierFrontieres(jeu);
+    }
+
+    @Test
+    void test_frontiere_copie() {
+        JeuSilencieux jeu = partie(20);
+        JeuSilencieux copie = jeu.copier();
+        verifierFrontieres(copie);
+        copie.setNbToursMax(40);
+        copie.terminer();
+        verifierFrontieres(copie);
+        verifierFrontieres(jeu);
+    }
+
+    @Test
+    void test_frontiere_apres_annulation() {
+        JeuSilencieux jeu = partie(10);
+        JournalActions journal = jeu.activerJournal();
+        jeu.setNbToursMax(30);
+        jeu.terminer();
+        journal.annulerJusqua(0);
+        verifierFrontieres(jeu);
+    }
+}
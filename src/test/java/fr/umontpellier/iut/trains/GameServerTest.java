@@ -0,0 +1,160 @@
+package fr.umontpellier.iut.trains;
+
+import fr.umontpellier.iut.gui.GameServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameServerTest {
+    private static final long ATTENTE = 2000;
+
+    /**
+     * Session websocket factice : les envois ne se terminent que lorsque le test appelle {@link #terminer}
+     */
+    private static class SessionFactice {
+        private final BlockingQueue<String> messages = new LinkedBlockingQueue<>();
+        private final BlockingQueue<SendHandler> envoisEnCours = new LinkedBlockingQueue<>();
+        private volatile Thread filDernierEnvoi;
+        private final CountDownLatch fermeture = new CountDownLatch(1);
+        private final Session session;
+
+        SessionFactice() {
+            RemoteEndpoint.Async async = (RemoteEndpoint.Async) Proxy.newProxyInstance(
+                    getClass().getClassLoader(), new Class<?>[]{RemoteEndpoint.Async.class}, (proxy, methode, args) -> {
+                        if (methode.getName().equals("sendText") && args.length == 2) {
+                            filDernierEnvoi = Thread.currentThread();
+                            messages.add((String) args[0]);
+                            envoisEnCours.add((SendHandler) args[1]);
+                        }
+                        return null;
+                    });
+            session = (Session) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Session.class},
+                    (proxy, methode, args) -> switch (methode.getName()) {
+                        case "getAsyncRemote" -> async;
+                        case "close" -> {
+                            fermeture.countDown();
+                            yield null;
+                        }
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        case "toString" -> "SessionFactice";
+                        default -> null;
+                    });
+        }
+
+        String message() throws InterruptedException {
+            return messages.poll(ATTENTE, TimeUnit.MILLISECONDS);
+        }
+
+        void terminer(SendResult resultat) throws InterruptedException {
+            SendHandler envoi = envoisEnCours.poll(ATTENTE, TimeUnit.MILLISECONDS);
+            assertNotNull(envoi);
+            envoi.onResult(resultat);
+        }
+
+        boolean estFermee() throws InterruptedException {
+            return fermeture.await(ATTENTE, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private final List<SessionFactice> sessions = new ArrayList<>();
+
+    private SessionFactice connecter() {
+        SessionFactice session = new SessionFactice();
+        sessions.add(session);
+        GameServer.addClient(session.session);
+        return session;
+    }
+
+    @AfterEach
+    void deconnecter() {
+        for (SessionFactice session : sessions) {
+            GameServer.removeClient(session.session);
+        }
+        GameServer.setDelaiEnvoiMax(GameServer.DELAI_ENVOI_MAX);
+    }
+
+    @Test
+    void test_un_seul_envoi_a_la_fois_puis_dernier_etat() throws InterruptedException {
+        GameServer.publierEtat("{\"etat\":1}");
+        SessionFactice client = connecter();
+        assertEquals("{\"etat\":1}", client.message());
+
+        GameServer.publierEtat("{\"etat\":2}");
+        GameServer.publierEtat("{\"etat\":3}");
+        // l'envoi de l'état 1 n'est pas terminé : rien d'autre n'est envoyé
+        assertNull(client.messages.poll(200, TimeUnit.MILLISECONDS));
+
+        client.terminer(new SendResult());
+        assertEquals("{\"etat\":3}", client.message());
+        client.terminer(new SendResult());
+        assertNull(client.messages.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void test_exclusion_apres_un_echec() throws InterruptedException {
+        GameServer.publierEtat("{\"etat\":1}");
+        SessionFactice client = connecter();
+        SessionFactice autre = connecter();
+        assertNotNull(client.message());
+        assertNotNull(autre.message());
+
+        client.terminer(new SendResult(new RuntimeException("connexion perdue")));
+        assertTrue(client.estFermee());
+        autre.terminer(new SendResult());
+
+        GameServer.publierEtat("{\"etat\":2}");
+        assertEquals("{\"etat\":2}", autre.message());
+        assertNull(client.messages.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void test_exclusion_d_un_envoi_bloque() throws InterruptedException {
+        GameServer.setDelaiEnvoiMax(50);
+        GameServer.publierEtat("{\"etat\":1}");
+        SessionFactice client = connecter();
+        assertNotNull(client.message());
+
+        Thread.sleep(100);
+        GameServer.publierEtat("{\"etat\":2}");
+        assertTrue(client.estFermee());
+        client.terminer(new SendResult());
+        GameServer.publierEtat("{\"etat\":3}");
+        assertNull(client.messages.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void test_differences_calculees_hors_du_fil_de_la_partie() throws InterruptedException {
+        GameServer.publierEtat("{\"a\":1,\"b\":[1,2]}");
+        SessionFactice client = connecter();
+        assertNotNull(client.message());
+        client.terminer(new SendResult());
+
+        GameServer.recevoirMessage(client.session, "DELTA");
+        String complet = client.message();
+        assertTrue(complet.contains("\"etat\""));
+        client.terminer(new SendResult());
+        int version = Integer.parseInt(complet.replaceAll("^\\{\"version\":(\\d+),.*$", "$1"));
+        GameServer.recevoirMessage(client.session, "ACK:" + version);
+
+        GameServer.publierEtat("{\"a\":2,\"b\":[1,2]}");
+        String differences = client.message();
+        assertNotSame(Thread.currentThread(), client.filDernierEnvoi);
+        assertTrue(differences.contains("\"depuis\":" + version), differences);
+        assertTrue(differences.contains("\"patch\""), differences);
+        client.terminer(new SendResult());
+    }
+}
@@ -0,0 +1,134 @@
+package fr.umontpellier.iut.trains;
+
+import fr.umontpellier.iut.trains.cartes.Carte;
+import fr.umontpellier.iut.trains.plateau.Plateau;
+import fr.umontpellier.iut.trains.plateau.Tuile;
+import fr.umontpellier.iut.trains.simulation.DecideurAleatoire;
+import fr.umontpellier.iut.trains.simulation.JeuSilencieux;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GenerateurActionsTest {
+
+    /**
+     * Décideur aléatoire qui vérifie que les actions proposées sont celles d'un calcul complet
+     */
+    private static class DecideurVerificateur extends DecideurAleatoire {
+        private int nbVerifications;
+
+        DecideurVerificateur(long graine) {
+            super(graine);
+        }
+
+        @Override
+        public int choisirAction(Joueur joueur, ListeActions actions) {
+            List<Tuile> tuiles = joueur.getJeu().getTuiles();
+            for (int i = 0; i < tuiles.size(); i++) {
+                assertEquals(tuiles.get(i).getSurcout(joueur), joueur.getSurcout(i));
+            }
+            Set<String> attendues = new HashSet<>();
+            attendues.add("");
+            for (String position : joueur.getPositionsRailDisponibles()) {
+                if (joueur.getPointsRails() > 0 && joueur.getNbJetonsRails() > 0) {
+                    attendues.add("TUILE:" + position);
+                }
+            }
+            for (Carte carte : joueur.getMain()) {
+                if (carte.peutEtreJouee(joueur)) {
+                    attendues.add(carte.getNom());
+                }
+            }
+            for (Carte carte : joueur.getCartesDisponiblesEnReserve()) {
+                if (carte.peutEtreAchetee(joueur)) {
+                    attendues.add("ACHAT:" + carte.getNom());
+                }
+            }
+            Set<String> obtenues = new HashSet<>();
+            for (int i = 0; i < actions.size(); i++) {
+                if (actions.get(i) != Action.RECYCLER_FERRAILLE) {
+                    assertTrue(obtenues.add(Action.versChoix(actions.get(i))));
+                }
+            }
+            assertEquals(attendues, obtenues);
+            nbVerifications++;
+            return super.choisirAction(joueur, actions);
+        }
+    }
+
+    @Test
+    void test_memes_actions_que_le_calcul_complet() {
+        for (long graine = 0; graine < 3; graine++) {
+            JeuSilencieux jeu = new JeuSilencieux(new String[]{"Lois", "Clark", "Bruce"},
+                    new String[]{"Dépôt", "Viaduc", "Tunnel", "Pont en acier", "Horaires estivaux"}, Plateau.TOKYO,
+                    graine);
+            DecideurVerificateur decideur = new DecideurVerificateur(graine);
+            jeu.setDecideur(decideur);
+            jeu.setNbToursMax(30);
+            jeu.run();
+            assertTrue(decideur.nbVerifications > 30);
+        }
+    }
+
+    @Test
+    void test_cache_invalide_par_un_rail() {
+        JeuSilencieux jeu = new JeuSilencieux(new String[]{"Lois", "Clark"}, new String[]{}, Plateau.OSAKA, 5);
+        jeu.setDecideur(new DecideurAleatoire(5));
+        jeu.setNbToursMax(0);
+        jeu.run();
+        Joueur joueur = jeu.getJoueurCourant();
+        joueur.incrementerRails();
+        joueur.incrementerArgent(10);
+        ListeActions actions = new ListeActions();
+        joueur.remplirActionsPossibles(actions);
+        int nbRails = nbRails(actions);
+
+        List<String> positions = List.copyOf(joueur.getPositionsRailDisponibles());
+        jeu.getTuile(Integer.parseInt(positions.get(0))).ajouterRail(joueur);
+        joueur.remplirActionsPossibles(actions);
+        assertNotEquals(nbRails, nbRails(actions));
+        assertEquals(joueur.getPositionsRailDisponibles().size(), nbRails(actions));
+    }
+
+    @Test
+    void test_surcout_mis_a_jour_par_tuile() {
+        JeuSilencieux jeu = new JeuSilencieux(new String[]{"Lois", "Clark"}, new String[]{}, Plateau.OSAKA, 5);
+        jeu.setDecideur(new DecideurAleatoire(5));
+        jeu.setNbToursMax(0);
+        jeu.run();
+        Joueur lois = jeu.getJoueurs().get(0);
+        Joueur clark = jeu.getJoueurs().get(1);
+        int ville = -1;
+        for (int i = 0; i < jeu.getTuiles().size() && ville < 0; i++) {
+            if (jeu.getTuile(i).peutPlacerGare() && jeu.getTuile(i).estVide()) {
+                ville = i;
+            }
+        }
+        int avant = lois.getSurcout(ville);
+        JournalActions journal = jeu.activerJournal();
+        int pointDeControle = journal.getPointDeControle();
+
+        jeu.getTuile(ville).ajouterRail(clark);
+        assertEquals(avant + 1, lois.getSurcout(ville));
+        jeu.ajouterGare(ville);
+        assertEquals(avant + 2, lois.getSurcout(ville));
+        assertEquals(jeu.getTuile(ville).getSurcout(clark), clark.getSurcout(ville));
+
+        journal.annulerJusqua(pointDeControle);
+        assertEquals(avant, lois.getSurcout(ville));
+    }
+
+    private int nbRails(ListeActions actions) {
+        int n = 0;
+        for (int i = 0; i < actions.size(); i++) {
+            if (Action.getType(actions.get(i)) == Action.TYPE_POSER_RAIL) {
+                n++;
+            }
+        }
+        return n;
+    }
+}
@@ -0,0 +1,54 @@
+package fr.umontpellier.iut.trains;
+
+import fr.umontpellier.iut.graphes.GrapheHexagonal;
+import fr.umontpellier.iut.trains.plateau.GenerateurPlateau;
+import fr.umontpellier.iut.trains.plateau.Tuile;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GenerateurPlateauTest {
+
+    private GenerateurPlateau generateur(long graine) {
+        return new GenerateurPlateau.GenerateurPlateauBuilder().setGraine(graine).setNbLignes(12).setLargeur(15)
+                .setProportionAretesSupprimees(0.1).createGenerateurPlateau();
+    }
+
+    @Test
+    void test_meme_graine_meme_plateau() {
+        List<Tuile> tuiles1 = generateur(42).makeTuiles();
+        List<Tuile> tuiles2 = generateur(42).makeTuiles();
+        assertEquals(6 * 15 + 6 * 14, tuiles1.size());
+        for (int i = 0; i < tuiles1.size(); i++) {
+            assertEquals(tuiles1.get(i).getClass(), tuiles2.get(i).getClass());
+            assertEquals(tuiles1.get(i).getSurcout(), tuiles2.get(i).getSurcout());
+            assertEquals(tuiles1.get(i).getVoisines().size(), tuiles2.get(i).getVoisines().size());
+        }
+    }
+
+    @Test
+    void test_graphe_hexagonal_coherent_avec_les_tuiles() {
+        GenerateurPlateau generateur = generateur(7);
+        Jeu jeu = new Jeu(new String[]{"Lois", "Clark"}, new String[]{}, generateur.getNomVille(), generateur.makeTuiles());
+        GrapheHexagonal attendu = new GrapheHexagonal(jeu.getTuiles(), 15, 14);
+        GrapheHexagonal obtenu = generateur.getGrapheHexagonal();
+
+        assertEquals(attendu.getNbSommets(), obtenu.getNbSommets());
+        assertEquals(attendu.getNbAretes(), obtenu.getNbAretes());
+        assertEquals(jeu.getGraphe().getNbAretes(), obtenu.getNbAretes());
+        for (int i = 0; i < obtenu.getNbCases(); i++) {
+            assertEquals(attendu.estMer(i), obtenu.estMer(i));
+            assertArrayEquals(attendu.getVoisins(i), obtenu.getVoisins(i));
+        }
+    }
+
+    @Test
+    void test_configuration_invalide() {
+        assertThrows(IllegalArgumentException.class, () -> new GenerateurPlateau.GenerateurPlateauBuilder()
+                .setProportionVilles(0.8).setProportionMer(0.5).createGenerateurPlateau());
+        assertThrows(IllegalArgumentException.class, () -> new GenerateurPlateau.GenerateurPlateauBuilder()
+                .setLargeur(0).createGenerateurPlateau());
+    }
+}
@@ -0,0 +1,90 @@
+package fr.umontpellier.iut.trains;
+
+import fr.umontpellier.iut.graphes.Graphe;
+import fr.umontpellier.iut.graphes.GrapheBinaire;
+import fr.umontpellier.iut.graphes.Sommet;
+import fr.umontpellier.iut.trains.plateau.Plateau;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GrapheBinaireTest {
+    @TempDir
+    Path dossier;
+
+    @Test
+    void test_ecrire_puis_charger_tokyo() throws IOException {
+        Jeu jeu = new Jeu(new String[]{"Batman", "Robin"}, new String[]{}, Plateau.TOKYO);
+        jeu.getTuile(3).ajouterRail(jeu.getJoueurs().get(1));
+        jeu.getTuile(4).ajouterRail(jeu.getJoueurs().get(0));
+        jeu.getTuile(4).ajouterRail(jeu.getJoueurs().get(1));
+        Graphe graphe = jeu.getGraphe();
+
+        Path chemin = dossier.resolve("tokyo.graphe");
+        GrapheBinaire.ecrire(graphe, chemin);
+        GrapheBinaire binaire = GrapheBinaire.charger(chemin);
+
+        assertEquals(66, binaire.getNbSommets());
+        assertEquals(156, binaire.getNbAretes());
+        for (Sommet s : graphe.getSommets()) {
+            int rang = binaire.getRang(s.getIndice());
+            assertEquals(s.getIndice(), binaire.getIndice(rang));
+            assertEquals(s.getSurcout(), binaire.getSurcout(rang));
+            assertEquals(s.getNbPointsVictoire(), binaire.getNbPointsVictoire(rang));
+            assertEquals(s.getVoisins().size(), binaire.degre(rang));
+            for (int k = 0; k < binaire.degre(rang); k++) {
+                assertTrue(s.estVoisin(graphe.getSommet(binaire.getIndice(binaire.getVoisin(rang, k)))));
+            }
+        }
+        assertEquals(0b10, binaire.getMasqueJoueurs(binaire.getRang(3)));
+        assertTrue(binaire.hasRail(binaire.getRang(4), 0));
+        assertTrue(binaire.hasRail(binaire.getRang(4), 1));
+        assertEquals(-1, binaire.getRang(75));
+    }
+
+    @Test
+    void test_versGraphe() throws IOException {
+        Graphe graphe = new Graphe(4);
+        graphe.ajouterArete(graphe.getSommet(0), graphe.getSommet(1));
+        graphe.ajouterArete(graphe.getSommet(1), graphe.getSommet(2));
+        graphe.ajouterArete(graphe.getSommet(2), graphe.getSommet(0));
+        graphe.getSommet(2).getJoueurs().add(3);
+
+        Path chemin = dossier.resolve("triangle.graphe");
+        GrapheBinaire.ecrire(graphe, chemin);
+        Graphe copie = GrapheBinaire.charger(chemin).versGraphe();
+
+        assertEquals(4, copie.getNbSommets());
+        assertEquals(3, copie.getNbAretes());
+        assertEquals(Set.of(3), copie.getSommet(2).getJoueurs());
+        assertEquals(new HashSet<>(), copie.getSommet(3).getJoueurs());
+    }
+
+    @Test
+    void test_fichier_invalide() throws IOException {
+        Path chemin = dossier.resolve("invalide.graphe");
+        Files.write(chemin, new byte[32]);
+        assertThrows(IllegalArgumentException.class, () -> GrapheBinaire.charger(chemin));
+    }
+
+    @Test
+    void test_fichier_trop_volumineux() throws IOException {
+        Path chemin = dossier.resolve("enorme.graphe");
+        // fichier creux : seul le dernier octet est écrit
+        try (FileChannel canal = FileChannel.open(chemin, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.allocate(1), GrapheBinaire.TAILLE_MAX);
+        }
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> GrapheBinaire.charger(chemin));
+        assertTrue(e.getMessage().contains("trop volumineux"));
+    }
+}
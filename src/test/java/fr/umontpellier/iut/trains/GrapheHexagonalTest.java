@@ -0,0 +1,70 @@
+package fr.umontpellier.iut.trains;
+
+import fr.umontpellier.iut.graphes.Graphe;
+import fr.umontpellier.iut.graphes.GrapheHexagonal;
+import fr.umontpellier.iut.graphes.Sommet;
+import fr.umontpellier.iut.trains.plateau.Plateau;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GrapheHexagonalTest {
+
+    private GrapheHexagonal grapheHexagonal(Jeu jeu, Plateau plateau) {
+        return new GrapheHexagonal(jeu.getTuiles(), plateau.getLargeurLignesPaires(), plateau.getLargeurLignesImpaires());
+    }
+
+    private void verifierMemesVoisinages(Graphe graphe, GrapheHexagonal hexagonal) {
+        assertEquals(graphe.getNbSommets(), hexagonal.getNbSommets());
+        assertEquals(graphe.getNbAretes(), hexagonal.getNbAretes());
+        for (Sommet s : graphe.getSommets()) {
+            assertTrue(hexagonal.contientSommet(s.getIndice()));
+            Set<Integer> attendus = s.getVoisins().stream().map(Sommet::getIndice).collect(Collectors.toSet());
+            Set<Integer> obtenus = Arrays.stream(hexagonal.getVoisins(s.getIndice())).boxed().collect(Collectors.toSet());
+            assertEquals(attendus, obtenus);
+        }
+    }
+
+    @Test
+    void test_memes_voisinages_que_le_plateau() {
+        for (Plateau plateau : Plateau.values()) {
+            Jeu jeu = new Jeu(new String[]{"Lois", "Clark"}, new String[]{}, plateau);
+            verifierMemesVoisinages(jeu.getGraphe(), grapheHexagonal(jeu, plateau));
+        }
+    }
+
+    @Test
+    void test_osaka() {
+        Jeu jeu = new Jeu(new String[]{"Lois", "Clark"}, new String[]{}, Plateau.OSAKA);
+        GrapheHexagonal graphe = grapheHexagonal(jeu, Plateau.OSAKA);
+
+        assertEquals(66, graphe.getNbSommets());
+        assertEquals(151, graphe.getNbAretes());
+        assertEquals(6, graphe.degreMax());
+        assertTrue(graphe.estConnexe());
+        assertTrue(graphe.estMer(39));
+        assertFalse(graphe.estVoisin(0, 10));
+        assertEquals(1, graphe.getDistance(0, 1));
+    }
+
+    @Test
+    void test_grille_complete() {
+        GrapheHexagonal graphe = new GrapheHexagonal(3, 3, 3);
+        assertEquals(9, graphe.getNbSommets());
+        assertEquals(16, graphe.getNbAretes());
+        assertEquals(1, graphe.getLigne(4));
+        assertEquals(1, graphe.getColonne(4));
+        assertEquals(4, graphe.getIndice(1, 1));
+        assertEquals(-1, graphe.getIndice(3, 0));
+
+        graphe.ajouterMer(4);
+        graphe.supprimerArete(0, 1);
+        assertEquals(8, graphe.getNbSommets());
+        assertEquals(16 - 6 - 1, graphe.getNbAretes());
+        assertEquals(graphe.getNbAretes(), graphe.versGraphe().getNbAretes());
+    }
+}
@@ -0,0 +1,83 @@
+package fr.umontpellier.iut.trains;
+
+import fr.umontpellier.iut.trains.cartes.FabriqueListeDeCartes;
+import fr.umontpellier.iut.trains.plateau.Plateau;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HistoriqueEvenementsTest {
+
+    @Test
+    void test_seuls_les_derniers_evenements_sont_conserves() {
+        HistoriqueEvenements historique = new HistoriqueEvenements(3);
+        for (int i = 0; i < 5; i++) {
+            historique.ajouter(Evenement.rail(i));
+        }
+        assertEquals(3, historique.size());
+        assertEquals(5, historique.getNbEvenements());
+        assertEquals(2, historique.get(0).valeur());
+        assertEquals(4, historique.get(2).valeur());
+
+        historique.setCapacite(2);
+        assertEquals(List.of(3, 4), List.of(historique.get(0).valeur(), historique.get(1).valeur()));
+        historique.setCapacite(0);
+        historique.ajouter(Evenement.finPartie());
+        assertEquals(0, historique.size());
+        assertFalse(historique.estActif());
+    }
+
+    @Test
+    void test_capacite_reduite_au_dessus_de_la_taille() {
+        HistoriqueEvenements historique = new HistoriqueEvenements(200);
+        for (int i = 0; i < 20; i++) {
+            historique.ajouter(Evenement.message("m" + i));
+        }
+        historique.setCapacite(25);
+        assertEquals(20, historique.size());
+        for (int i = 20; i < 27; i++) {
+            historique.ajouter(Evenement.message("m" + i));
+        }
+        assertEquals(25, historique.size());
+        for (int i = 0; i < 25; i++) {
+            assertEquals("m" + (i + 2), historique.get(i).texte());
+        }
+        assertEquals(25, historique.versHtml().size());
+
+        historique.setCapacite(3);
+        assertEquals("m24", historique.get(0).texte());
+        historique.ajouter(Evenement.message("m27"));
+        assertEquals("m25", historique.get(0).texte());
+        assertEquals("m27", historique.get(2).texte());
+    }
+
+    @Test
+    void test_rendu_html() {
+        Jeu jeu = new Jeu(new String[]{"Lois", "Clark"}, new String[]{}, Plateau.OSAKA);
+        Joueur joueur = jeu.getJoueurs().get(0);
+        HistoriqueEvenements historique = jeu.getHistorique();
+        jeu.log(Evenement.debutTour(joueur));
+        jeu.log(Evenement.recycle(FabriqueListeDeCartes.getCarte("Ferraille"), 2));
+        jeu.log("<b>message</b>");
+
+        List<String> html = historique.versHtml();
+        assertEquals(List.of("<div class=\"tour\">Tour de " + joueur.toLog() + "</div>",
+                "Recycle 2 " + FabriqueListeDeCartes.getCarte("Ferraille").toLog(),
+                "<b>message</b>"), html);
+        assertSame(html, historique.versHtml());
+        jeu.prompt("Instruction", null, false);
+        assertSame(html, jeu.dataMap().get("log"));
+    }
+
+    @Test
+    void test_taille_bornee_par_defaut() {
+        Jeu jeu = new Jeu(new String[]{"Lois", "Clark"}, new String[]{}, Plateau.OSAKA);
+        for (int i = 0; i < 2 * Jeu.TAILLE_MAX_LOG; i++) {
+            jeu.log(Evenement.gare(i % 10));
+        }
+        assertEquals(Jeu.TAILLE_MAX_LOG, jeu.getHistorique().size());
+        assertEquals(Jeu.TAILLE_MAX_LOG, jeu.getHistorique().versHtml().size());
+    }
+}
@@ -0,0 +1,75 @@
+package fr.umontpellier.iut.trains;
+
+import fr.umontpellier.iut.trains.plateau.Plateau;
+import fr.umontpellier.iut.trains.simulation.DecideurAleatoire;
+import fr.umontpellier.iut.trains.simulation.JeuSilencieux;
+import fr.umontpellier.iut.trains.simulation.ResultatPartie;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JeuSilencieuxTest {
+
+    @Test
+    void test_partie_aleatoire_sans_affichage() {
+        PrintStream sortie = System.out;
+        ByteArrayOutputStream capture = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(capture));
+        try {
+            JeuSilencieux jeu = new JeuSilencieux(new String[]{"Lois", "Clark"},
+                    new String[]{"Dépôt", "Train de marchandises"}, Plateau.OSAKA);
+            jeu.setDecideur(new DecideurAleatoire(1));
+            jeu.setNbToursMax(200);
+            ResultatPartie resultat = jeu.jouer();
+
+            assertTrue(resultat.nbTours() <= 200);
+            assertEquals(2, resultat.scores().length);
+            assertFalse(resultat.getGagnants().isEmpty());
+        } finally {
+            System.setOut(sortie);
+        }
+        assertEquals(0, capture.size());
+    }
+
+    private ResultatPartie jouerPartie(long graine) {
+        JeuSilencieux jeu = new JeuSilencieux(new String[]{"Lois", "Clark", "Bruce"},
+                new String[]{"Dépôt", "Train de marchandises", "Usine de wagons"}, Plateau.TOKYO, graine);
+        for (Joueur joueur : jeu.getJoueurs()) {
+            joueur.setDecideur(new DecideurAleatoire(jeu.creerGenerateur()));
+        }
+        jeu.setNbToursMax(150);
+        return jeu.jouer();
+    }
+
+    @Test
+    void test_meme_graine_meme_partie() {
+        ResultatPartie resultat1 = jouerPartie(123456789L);
+        ResultatPartie resultat2 = jouerPartie(123456789L);
+        assertEquals(resultat1.nbTours(), resultat2.nbTours());
+        assertArrayEquals(resultat1.scores(), resultat2.scores());
+    }
+
+    @Test
+    void test_meme_graine_memes_couleurs_et_pioches() {
+        Jeu jeu1 = new Jeu(new String[]{"Lois", "Clark"}, new String[]{}, Plateau.OSAKA, 42);
+        Jeu jeu2 = new Jeu(new String[]{"Lois", "Clark"}, new String[]{}, Plateau.OSAKA, 42);
+        assertEquals(42, jeu1.getGraine());
+        for (int i = 0; i < 2; i++) {
+            Joueur joueur1 = jeu1.getJoueurs().get(i);
+            Joueur joueur2 = jeu2.getJoueurs().get(i);
+            assertEquals(joueur1.getCouleur(), joueur2.getCouleur());
+            assertEquals(joueur1.getMain().toString(), joueur2.getMain().toString());
+            assertEquals(joueur1.getPioche().toString(), joueur2.getPioche().toString());
+        }
+    }
+
+    @Test
+    void test_joueur_sans_decideur() {
+        JeuSilencieux jeu = new JeuSilencieux(new String[]{"Lois", "Clark"}, new String[]{}, Plateau.TOKYO);
+        jeu.getJoueurs().get(0).setDecideur(new DecideurAleatoire(2));
+        assertThrows(IllegalStateException.class, jeu::jouer);
+    }
+}
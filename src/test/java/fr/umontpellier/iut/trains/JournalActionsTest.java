@@ -0,0 +1,118 @@
+package fr.umontpellier.iut.trains;
+
+import fr.umontpellier.iut.trains.cartes.Carte;
+import fr.umontpellier.iut.trains.cartes.ListeDeCartes;
+import fr.umontpellier.iut.trains.simulation.JeuSilencieux;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JournalActionsTest {
+
+    private JeuSilencieux partieEnCours() {
+        return Utils.partieEnCours(new String[]{"Dépôt", "Train de marchandises", "Gare"}, 10);
+    }
+
+    @Test
+    void test_annuler_puis_refaire() {
+        JeuSilencieux jeu = partieEnCours();
+        JournalActions journal = jeu.activerJournal();
+        int pointDeControle = journal.getPointDeControle();
+        String avant = Utils.etat(jeu);
+
+        jeu.setNbToursMax(30);
+        jeu.terminer();
+        String apres = Utils.etat(jeu);
+        assertNotEquals(avant, apres);
+
+        journal.annulerJusqua(pointDeControle);
+        assertEquals(avant, Utils.etat(jeu));
+
+        while (journal.refaire()) {
+            // refait toutes les modifications annulées
+        }
+        assertEquals(apres, Utils.etat(jeu));
+    }
+
+    @Test
+    void test_nouvelle_modification_oublie_les_modifications_annulees() {
+        JournalActions journal = new JournalActions();
+        int[] compteur = {0};
+        for (int i = 0; i < 3; i++) {
+            compteur[0]++;
+            journal.enregistrer(() -> compteur[0]--, () -> compteur[0]++);
+        }
+        assertTrue(journal.annuler());
+        assertTrue(journal.annuler());
+        assertEquals(1, compteur[0]);
+
+        compteur[0] += 10;
+        journal.enregistrer(() -> compteur[0] -= 10, () -> compteur[0] += 10);
+        assertFalse(journal.refaire());
+        journal.annulerJusqua(0);
+        assertEquals(0, compteur[0]);
+        assertFalse(journal.annuler());
+    }
+
+    @Test
+    void test_sans_journal() {
+        JeuSilencieux jeu = partieEnCours();
+        assertNull(jeu.getJournal());
+        jeu.activerJournal();
+        jeu.desactiverJournal();
+        assertNull(jeu.getJournal());
+        assertNull(jeu.copier().getJournal());
+    }
+
+    @Test
+    void test_annuler_la_suppression_d_un_intervalle() {
+        JeuSilencieux jeu = partieEnCours();
+        ListeDeCartes pioche = jeu.getJoueurs().get(0).getPioche();
+        assertTrue(pioche.size() >= 3);
+        List<Carte> avant = new ArrayList<>(pioche);
+        int points = pioche.getNbPointsVictoire();
+        String etat = Utils.etat(jeu);
+
+        JournalActions journal = jeu.activerJournal();
+        int pointDeControle = journal.getPointDeControle();
+        pioche.subList(1, 3).clear();
+        assertEquals(avant.size() - 2, pioche.size());
+        List<Carte> apres = new ArrayList<>(pioche);
+
+        journal.annulerJusqua(pointDeControle);
+        assertEquals(avant, pioche);
+        assertEquals(points, pioche.getNbPointsVictoire());
+        assertEquals(etat, Utils.etat(jeu));
+
+        assertTrue(journal.refaire());
+        assertEquals(apres, pioche);
+        assertFalse(journal.refaire());
+    }
+
+    @Test
+    void test_nombre_de_tuiles_du_reseau() {
+        JeuSilencieux jeu = partieEnCours();
+        for (Joueur joueur : jeu.getJoueurs()) {
+            int nbTuiles = 0;
+            for (int i = 0; i < jeu.getTuiles().size(); i++) {
+                if (jeu.getTuile(i).hasRail(joueur)) {
+                    nbTuiles++;
+                }
+            }
+            assertEquals(nbTuiles, joueur.getNbTuilesReseau());
+        }
+
+        Joueur joueur = jeu.getJoueurs().get(0);
+        int avant = joueur.getNbTuilesReseau();
+        JournalActions journal = jeu.activerJournal();
+        int pointDeControle = journal.getPointDeControle();
+        jeu.getTuile(joueur.getFrontiere().get(0)).ajouterRail(joueur);
+        assertEquals(avant + 1, joueur.getNbTuilesReseau());
+        journal.annulerJusqua(pointDeControle);
+        assertEquals(avant, joueur.getNbTuilesReseau());
+        assertEquals(avant, jeu.copier().getJoueurs().get(0).getNbTuilesReseau());
+    }
+}
@@ -0,0 +1,130 @@
+package fr.umontpellier.iut.trains;
+
+import fr.umontpellier.iut.trains.cartes.Carte;
+import fr.umontpellier.iut.trains.cartes.FabriqueListeDeCartes;
+import fr.umontpellier.iut.trains.cartes.ListeDeCartes;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ListeDeCartesTest {
+
+    private int compter(ListeDeCartes cartes, String nomCarte) {
+        int total = 0;
+        for (Carte c : cartes) {
+            if (c.getNom().equals(nomCarte)) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    private void verifierCompteurs(ListeDeCartes cartes) {
+        for (int i = 0; i < FabriqueListeDeCartes.getNbCartes(); i++) {
+            String nomCarte = FabriqueListeDeCartes.getNomCarte(i);
+            assertEquals(compter(cartes, nomCarte), cartes.count(nomCarte), nomCarte);
+            assertEquals(compter(cartes, nomCarte), cartes.count(i), nomCarte);
+        }
+    }
+
+    @Test
+    void test_compteurs_apres_modifications() {
+        ListeDeCartes cartes = FabriqueListeDeCartes.creerListeDeCartes("Ferraille", 3);
+        cartes.addAll(0, FabriqueListeDeCartes.creerListeDeCartes("Gare", 2));
+        cartes.add(2, FabriqueListeDeCartes.getCarte("Immeuble"));
+        verifierCompteurs(cartes);
+
+        cartes.set(0, FabriqueListeDeCartes.getCarte("Train omnibus"));
+        cartes.remove(cartes.size() - 1);
+        cartes.subList(1, 3).clear();
+        cartes.removeIf(c -> c.getNom().equals("Immeuble"));
+        verifierCompteurs(cartes);
+        cartes.melanger(new SplittableRandom(3));
+        verifierCompteurs(cartes);
+
+        ListeDeCartes copie = new ListeDeCartes(cartes);
+        cartes.clear();
+        verifierCompteurs(cartes);
+        verifierCompteurs(copie);
+        assertEquals(2, copie.count("Ferraille"));
+    }
+
+    @Test
+    void test_retirer_et_getCarte_conservent_l_ordre() {
+        ListeDeCartes cartes = FabriqueListeDeCartes.creerListeDeCartes("Ferraille", 2);
+        Carte gare = FabriqueListeDeCartes.getCarte("Gare");
+        cartes.add(1, gare);
+        Carte premiere = cartes.get(0);
+        Carte derniere = cartes.get(2);
+
+        assertNull(cartes.getCarte("Immeuble"));
+        assertNull(cartes.retirer("Immeuble"));
+        assertNull(cartes.getCarte("Carte inconnue"));
+        assertSame(premiere, cartes.getCarte("Ferraille"));
+        assertSame(gare, cartes.retirer("Gare"));
+        assertSame(premiere, cartes.retirer("Ferraille"));
+        assertEquals(1, cartes.count("Ferraille"));
+        assertSame(derniere, cartes.get(0));
+    }
+
+    @Test
+    void test_operations_aleatoires_comme_une_liste() {
+        SplittableRandom random = new SplittableRandom(42);
+        ListeDeCartes cartes = new ListeDeCartes();
+        List<Carte> modele = new ArrayList<>();
+        for (int n = 0; n < 3000; n++) {
+            Carte carte = FabriqueListeDeCartes.getCarte(random.nextInt(FabriqueListeDeCartes.getNbCartes()));
+            int i = random.nextInt(modele.size() + 1);
+            switch (random.nextInt(6)) {
+                case 0 -> {
+                    cartes.add(0, carte);
+                    modele.add(0, carte);
+                }
+                case 1 -> {
+                    cartes.add(i, carte);
+                    modele.add(i, carte);
+                }
+                case 2 -> {
+                    List<Carte> ajoutees = List.of(carte, carte, FabriqueListeDeCartes.getCarte("Gare"));
+                    cartes.addAll(i, ajoutees);
+                    modele.addAll(i, ajoutees);
+                }
+                case 3 -> {
+                    if (!modele.isEmpty()) {
+                        assertSame(modele.remove(0), cartes.remove(0));
+                    }
+                }
+                case 4 -> {
+                    if (i < modele.size()) {
+                        assertSame(modele.remove(i), cartes.remove(i));
+                    }
+                }
+                default -> {
+                    int fin = Math.min(modele.size(), i + random.nextInt(4));
+                    cartes.subList(i, fin).clear();
+                    modele.subList(i, fin).clear();
+                }
+            }
+            assertEquals(modele, cartes);
+        }
+        verifierCompteurs(cartes);
+    }
+
+    @Test
+    void test_ajouterEtMelanger() {
+        ListeDeCartes defausse = FabriqueListeDeCartes.creerListeDeCartes("Ferraille", 5);
+        defausse.add(FabriqueListeDeCartes.getCarte("Gare"));
+        List<Carte> attendu = new ArrayList<>(defausse);
+        ListeDeCartes.melanger(attendu, new SplittableRandom(7));
+
+        ListeDeCartes pioche = new ListeDeCartes();
+        pioche.ajouterEtMelanger(defausse, new SplittableRandom(7));
+        assertTrue(defausse.isEmpty());
+        assertEquals(attendu, pioche);
+        assertEquals(5, pioche.count("Ferraille"));
+    }
+}
@@ -0,0 +1,89 @@
+package fr.umontpellier.iut.trains;
+
+import fr.umontpellier.iut.trains.cartes.Carte;
+import fr.umontpellier.iut.trains.cartes.FabriqueListeDeCartes;
+import fr.umontpellier.iut.trains.cartes.ListeDeCartes;
+import fr.umontpellier.iut.trains.cartes.PileReserve;
+import fr.umontpellier.iut.trains.plateau.Plateau;
+import fr.umontpellier.iut.trains.simulation.JeuSilencieux;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PileReserveTest {
+
+    @Test
+    void test_prendre_et_remettre() {
+        PileReserve pile = FabriqueListeDeCartes.creerPileReserve("Ferraille", 70);
+        Carte ferraille = pile.getCarte();
+        assertEquals(70, pile.size());
+        assertEquals(70, pile.count("Ferraille"));
+
+        assertSame(ferraille, pile.remove(0));
+        assertSame(ferraille, pile.get(68));
+        assertEquals(69, pile.size());
+        assertTrue(pile.remove(ferraille));
+        pile.add(ferraille);
+        pile.add(FabriqueListeDeCartes.creerListeDeCartes("Ferraille", 1).get(0));
+        assertEquals(70, pile.size());
+        assertEquals(0, pile.getNbPointsVictoire());
+
+        pile.clear();
+        assertTrue(pile.isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> pile.remove(0));
+    }
+
+    @Test
+    void test_carte_d_une_autre_pile_refusee() {
+        PileReserve pile = FabriqueListeDeCartes.creerPileReserve("Gare", 20);
+        Carte immeuble = FabriqueListeDeCartes.creerListeDeCartes("Immeuble", 1).get(0);
+        assertThrows(IllegalArgumentException.class, () -> pile.add(immeuble));
+        assertEquals(20, pile.size());
+        assertEquals(20 * immeuble.getNbPointsVictoire(),
+                FabriqueListeDeCartes.creerPileReserve("Immeuble", 20).getNbPointsVictoire());
+    }
+
+    @Test
+    void test_copie_et_journal() {
+        PileReserve pile = FabriqueListeDeCartes.creerPileReserve("Gare", 20);
+        ListeDeCartes copie = pile.copier();
+        JournalActions journal = new JournalActions();
+        pile.setJournal(journal);
+
+        pile.remove(0);
+        pile.remove(0);
+        assertEquals(18, pile.size());
+        assertEquals(20, copie.size());
+        assertInstanceOf(PileReserve.class, copie);
+
+        journal.annulerJusqua(0);
+        assertEquals(20, pile.size());
+    }
+
+    @Test
+    void test_registre_des_cartes() {
+        int identifiant = FabriqueListeDeCartes.getIdentifiant("Gare");
+        assertSame(FabriqueListeDeCartes.getCarte("Gare"), FabriqueListeDeCartes.getCarte(identifiant));
+        assertSame(FabriqueListeDeCartes.getCarte("Gare"), FabriqueListeDeCartes.creerPileReserve("Gare", 3).getCarte());
+        assertEquals(identifiant, FabriqueListeDeCartes.getCarte(identifiant).getIdentifiant());
+
+        ListeDeCartes cartes = FabriqueListeDeCartes.creerListeDeCartes("Gare", 2);
+        assertNotSame(cartes.get(0), cartes.get(1));
+        assertThrows(IllegalArgumentException.class, () -> FabriqueListeDeCartes.creerListeDeCartes("Gare du Nord", 2));
+        assertThrows(IllegalArgumentException.class, () -> FabriqueListeDeCartes.getCarte("Gare du Nord"));
+    }
+
+    @Test
+    void test_reserve_partie_silencieuse() {
+        JeuSilencieux jeu = new JeuSilencieux(new String[]{"Lois", "Clark"}, new String[]{"Dépôt"}, Plateau.OSAKA, 1);
+        Jeu copie = jeu.copier();
+        assertInstanceOf(PileReserve.class, jeu.getReserve().get("Ferraille"));
+        assertInstanceOf(PileReserve.class, copie.getReserve().get("Dépôt"));
+
+        Carte ferraille = jeu.prendreDansLaReserve("Ferraille");
+        assertSame(ferraille, jeu.prendreDansLaReserve("Ferraille"));
+        jeu.remettreCarteDansLaReserve(ferraille);
+        assertEquals(69, jeu.getReserve().get("Ferraille").size());
+        assertEquals(70, copie.getReserve().get("Ferraille").size());
+    }
+}
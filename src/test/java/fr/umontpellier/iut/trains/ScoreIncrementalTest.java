@@ -0,0 +1,75 @@
+package fr.umontpellier.iut.trains;
+
+import fr.umontpellier.iut.trains.cartes.FabriqueListeDeCartes;
+import fr.umontpellier.iut.trains.cartes.ListeDeCartes;
+import fr.umontpellier.iut.trains.plateau.Plateau;
+import fr.umontpellier.iut.trains.simulation.DecideurAleatoire;
+import fr.umontpellier.iut.trains.simulation.JeuSilencieux;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScoreIncrementalTest {
+
+    /**
+     * Décideur aléatoire qui demande le score de tous les joueurs à chaque action (vérifié par la partie)
+     */
+    private static class DecideurScores extends DecideurAleatoire {
+        DecideurScores(long graine) {
+            super(graine);
+        }
+
+        @Override
+        public int choisirAction(Joueur joueur, ListeActions actions) {
+            for (Joueur j : joueur.getJeu().getJoueurs()) {
+                j.getScoreTotal();
+            }
+            return super.choisirAction(joueur, actions);
+        }
+    }
+
+    @Test
+    void test_scores_verifies_pendant_la_partie() {
+        JeuSilencieux jeu = new JeuSilencieux(new String[]{"Lois", "Clark", "Bruce"},
+                new String[]{"Appartement", "Immeuble", "Gratte-ciel", "Décharge", "Dépotoir"}, Plateau.OSAKA, 3);
+        jeu.setVerificationScores(true);
+        jeu.setDecideur(new DecideurScores(3));
+        jeu.setNbToursMax(60);
+        jeu.run();
+        int total = 0;
+        for (Joueur joueur : jeu.getJoueurs()) {
+            assertEquals(joueur.calculerScoreTotal(), joueur.getScoreTotal());
+            total += joueur.getScoreTotal();
+        }
+        assertTrue(total > 0);
+    }
+
+    @Test
+    void test_scores_apres_annulation() {
+        JeuSilencieux jeu = new JeuSilencieux(new String[]{"Lois", "Clark"}, new String[]{}, Plateau.TOKYO, 4);
+        jeu.setDecideur(new DecideurAleatoire(4));
+        jeu.setNbToursMax(10);
+        jeu.run();
+        JournalActions journal = jeu.activerJournal();
+        jeu.setNbToursMax(50);
+        jeu.terminer();
+        journal.annulerJusqua(0);
+        jeu.setVerificationScores(true);
+        for (Joueur joueur : jeu.getJoueurs()) {
+            assertEquals(joueur.calculerScoreTotal(), joueur.getScoreTotal());
+        }
+    }
+
+    @Test
+    void test_points_liste_de_cartes() {
+        ListeDeCartes cartes = FabriqueListeDeCartes.creerListeDeCartes("Immeuble", 3);
+        cartes.addAll(FabriqueListeDeCartes.creerListeDeCartes("Train express", 2));
+        assertEquals(6, cartes.getNbPointsVictoire());
+        cartes.remove(0);
+        assertEquals(4, cartes.getNbPointsVictoire());
+        cartes.removeIf(c -> c.getNom().equals("Immeuble"));
+        assertEquals(0, cartes.getNbPointsVictoire());
+        cartes.add(0, FabriqueListeDeCartes.creerListeDeCartes("Gratte-ciel", 1).get(0));
+        assertEquals(4, new ListeDeCartes(cartes).getNbPointsVictoire());
+    }
+}
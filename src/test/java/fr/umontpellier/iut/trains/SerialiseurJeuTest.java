@@ -0,0 +1,39 @@
+package fr.umontpellier.iut.trains;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import fr.umontpellier.iut.gui.SerialiseurJeu;
+import fr.umontpellier.iut.trains.plateau.Plateau;
+import fr.umontpellier.iut.trains.simulation.DecideurAleatoire;
+import fr.umontpellier.iut.trains.simulation.JeuSilencieux;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SerialiseurJeuTest {
+    private static final Gson GSON = new Gson();
+
+    @Test
+    void test_meme_json_que_dataMap_pendant_une_partie() {
+        JeuSilencieux jeu = new JeuSilencieux(new String[]{"Lois", "Clark", "Bruce"}, new String[]{"Dépôt", "Gare"},
+                Plateau.TOKYO, 3);
+        jeu.setDecideur(new DecideurAleatoire(3));
+        SerialiseurJeu serialiseur = new SerialiseurJeu();
+        for (int tours = 1; tours <= 20; tours++) {
+            jeu.setNbToursMax(tours);
+            jeu.jouerTours();
+            assertEquals(GSON.toJsonTree(jeu.dataMap()), JsonParser.parseString(serialiseur.serialiser(jeu)));
+        }
+    }
+
+    @Test
+    void test_instruction_et_boutons() {
+        Jeu jeu = new Jeu(new String[]{"Lois", "Clark"}, new String[]{}, Plateau.OSAKA);
+        jeu.prompt("Choisissez <b>une</b> carte", List.of(new Bouton("Train omnibus"), new Bouton("Oui", "oui")), true);
+        String texte = new SerialiseurJeu().serialiser(jeu);
+        assertEquals(GSON.toJsonTree(jeu.dataMap()), JsonParser.parseString(texte));
+        assertFalse(texte.contains("<b>"));
+    }
+}
@@ -0,0 +1,61 @@
+package fr.umontpellier.iut.trains;
+
+import fr.umontpellier.iut.trains.simulation.DecideurAleatoire;
+import fr.umontpellier.iut.trains.simulation.StatistiquesJoueur;
+import fr.umontpellier.iut.trains.simulation.Tournoi;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TournoiTest {
+
+    @Test
+    void test_tournoi_parallele() {
+        Tournoi tournoi = new Tournoi.TournoiBuilder()
+                .ajouterParticipant("Lois", DecideurAleatoire::new)
+                .ajouterParticipant("Clark", DecideurAleatoire::new)
+                .ajouterParticipant("Bruce", DecideurAleatoire::new)
+                .setNbJoueursParPartie(2)
+                .setNbParties(6)
+                .setNbToursMax(60)
+                .setNbThreads(3)
+                .createTournoi();
+
+        List<StatistiquesJoueur> statistiques = tournoi.jouer();
+
+        assertEquals(List.of("Lois", "Clark", "Bruce"), statistiques.stream().map(StatistiquesJoueur::getNom).toList());
+        assertEquals(12, statistiques.stream().mapToInt(StatistiquesJoueur::getNbParties).sum());
+        assertEquals(6, statistiques.stream().mapToDouble(StatistiquesJoueur::getNbVictoires).sum(), 1e-9);
+        for (StatistiquesJoueur s : statistiques) {
+            assertEquals(4, s.getNbParties());
+            assertEquals(4, s.getDistributionScores().values().stream().mapToInt(Integer::intValue).sum());
+            assertTrue(s.getScoreMin() <= s.getScoreMoyen() && s.getScoreMoyen() <= s.getScoreMax());
+        }
+    }
+
+    @Test
+    void test_tournoi_reproductible() {
+        Tournoi.TournoiBuilder builder = new Tournoi.TournoiBuilder()
+                .ajouterParticipant("Lois", DecideurAleatoire::new)
+                .ajouterParticipant("Clark", DecideurAleatoire::new)
+                .setNbParties(4)
+                .setNbToursMax(60)
+                .setNbThreads(2)
+                .setGraine(7);
+        List<StatistiquesJoueur> statistiques1 = builder.createTournoi().jouer();
+        List<StatistiquesJoueur> statistiques2 = builder.createTournoi().jouer();
+        for (int i = 0; i < 2; i++) {
+            assertEquals(statistiques1.get(i).getDistributionScores(), statistiques2.get(i).getDistributionScores());
+            assertEquals(statistiques1.get(i).getNbVictoires(), statistiques2.get(i).getNbVictoires());
+        }
+    }
+
+    @Test
+    void test_configuration_invalide() {
+        assertThrows(IllegalArgumentException.class, () -> new Tournoi.TournoiBuilder().createTournoi());
+        assertThrows(IllegalArgumentException.class, () -> new Tournoi.TournoiBuilder()
+                .ajouterParticipant("Lois", DecideurAleatoire::new).setNbJoueursParPartie(2).createTournoi());
+    }
+}
@@ -1,5 +1,10 @@
 package fr.umontpellier.iut.trains;
 
+import fr.umontpellier.iut.trains.plateau.Plateau;
+import fr.umontpellier.iut.trains.plateau.Tuile;
+import fr.umontpellier.iut.trains.simulation.DecideurAleatoire;
+import fr.umontpellier.iut.trains.simulation.JeuSilencieux;
+
 import java.lang.reflect.Field;
 
 public class Utils {
@@ -88,5 +93,33 @@ public class Utils {
         throw new RuntimeException("No such field: " + name);
     }
 
-    
+    /**
+     * Renvoie une partie silencieuse sur le plateau d'Osaka (graine fixée), jouée par des décideurs
+     * aléatoires pendant {@code nbTours} tours.
+     */
+    public static JeuSilencieux partieEnCours(String[] nomsCartes, int nbTours) {
+        JeuSilencieux jeu = new JeuSilencieux(new String[]{"Lois", "Clark"}, nomsCartes, Plateau.OSAKA, 2024);
+        jeu.setDecideur(new DecideurAleatoire(5));
+        jeu.setNbToursMax(nbTours);
+        jeu.run();
+        return jeu;
+    }
+
+    /**
+     * Renvoie une description textuelle de l'état d'une partie (joueur courant, cartes et compteurs des
+     * joueurs, réserve et plateau), pour comparer deux états
+     */
+    public static String etat(Jeu jeu) {
+        StringBuilder etat = new StringBuilder();
+        etat.append(jeu.getJoueurCourant().getNom()).append(jeu.getNbTours());
+        for (Joueur joueur : jeu.getJoueurs()) {
+            etat.append(joueur).append(joueur.getPioche()).append(joueur.getDefausse())
+                    .append(joueur.getNbJetonsRails()).append(joueur.getScoreTotal()).append('\n');
+        }
+        jeu.getReserve().forEach((nom, pile) -> etat.append(nom).append(pile.size()));
+        for (Tuile tuile : jeu.getTuiles()) {
+            etat.append(tuile.getMasqueRails()).append(tuile.getNbGares());
+        }
+        return etat.toString();
+    }
 }